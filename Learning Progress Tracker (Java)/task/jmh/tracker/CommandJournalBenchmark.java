@@ -0,0 +1,51 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Sustained `add points` journaling throughput for each fsync policy: appends alone, and appends that wait
+// until they may be acknowledged, from eight threads so GROUP has concurrent records to commit together.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandJournalBenchmark {
+
+    @Param({"ALWAYS", "GROUP", "NONE"})
+    public CommandJournal.FsyncPolicy policy;
+
+    private Path path;
+    private CommandJournal journal;
+    private final int[] points = {5, 4, 3, 1};
+    private int id = StudentIdAllocator.FIRST_ID;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        path = Files.createTempFile("journal-bench", ".log");
+        journal = CommandJournal.open(path, policy, 10, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        journal.close();
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public void appendPointsAdded() throws IOException {
+        journal.appendPointsAdded(id++, points);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void acknowledgedPointsAdded() throws IOException {
+        journal.appendPointsAdded(StudentIdAllocator.FIRST_ID, points);
+        journal.awaitDurable(journal.appendedSequence());
+    }
+}
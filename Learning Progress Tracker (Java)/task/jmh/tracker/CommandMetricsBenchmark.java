@@ -0,0 +1,90 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// The cost of per-command metrics on the cheapest lines there are: 'add points' and 'find' lines, with
+// metrics on and off, from one thread and from several threads whose sessions share the same counters.
+// The difference between the two settings is the instrumentation overhead.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CommandMetricsBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"100000"})
+    public int students;
+
+    @Param({"true", "false"})
+    public boolean metrics;
+
+    private Tracker tracker;
+    private SyntheticDataset dataset;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        tracker = new Tracker(() -> null, new BufferedOutputSink(OutputStream.nullOutputStream()));
+        dataset = new SyntheticDataset(SEED, tracker.getCatalog());
+        dataset.populate(tracker, students, students);
+        tracker.getMetrics().setEnabled(metrics);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        tracker.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class Sessions {
+        private Tracker points;
+        private Tracker finding;
+        private SplittableRandom random;
+        private String[] pointLines;
+        private String[] ids;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void open(CommandMetricsBenchmark benchmark) {
+            OutputSink discard = new BufferedOutputSink(OutputStream.nullOutputStream());
+            NotificationDispatcher notifications = NotificationDispatcher.synchronous(new ConsoleTransport(discard));
+            points = benchmark.tracker.session(discard, notifications);
+            finding = benchmark.tracker.session(discard, notifications);
+            points.accept("add points");
+            finding.accept("find");
+            random = new SplittableRandom(SEED + Thread.currentThread().getId());
+            // Lines are prepared up front so the benchmark does not measure building them.
+            pointLines = new String[4096];
+            ids = new String[4096];
+            for (int i = 0; i < pointLines.length; i++) {
+                pointLines[i] = benchmark.dataset.pointsLine(random, benchmark.students);
+                ids[i] = Integer.toString(StudentIdAllocator.idOf(benchmark.dataset.nextStudent(random, benchmark.students)));
+            }
+        }
+
+        int next() {
+            return next++ & (pointLines.length - 1);
+        }
+    }
+
+    @Benchmark
+    public void addPointsLine(Sessions sessions) {
+        sessions.points.accept(sessions.pointLines[sessions.next()]);
+    }
+
+    @Benchmark
+    public void findLine(Sessions sessions) {
+        sessions.finding.accept(sessions.ids[sessions.next()]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addPointsLineFourThreads(Sessions sessions) {
+        sessions.points.accept(sessions.pointLines[sessions.next()]);
+    }
+}
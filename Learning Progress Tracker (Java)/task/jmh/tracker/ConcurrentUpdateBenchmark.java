@@ -0,0 +1,101 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Throughput of 'add points' lines from 1 to 32 threads against one shared registry, plus a mixed
+// run where readers keep asking for statistics while writers update points.
+// Every line updates all four courses, so it also contends on the per-course leaderboards.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ConcurrentUpdateBenchmark {
+
+    @Param({"100000"})
+    public int students;
+
+    private StudentRegistry registry;
+    private CourseStatistics statistics;
+    private List<Course> courses;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        courses = CourseCatalog.defaults().courses();
+        registry = new StudentRegistry(new StudentIdAllocator(), courses);
+        statistics = new CourseStatistics(courses);
+        registry.reserve(students);
+        for (int i = 0; i < students; i++) {
+            registry.register("First", "Last", "student" + i + "@mail.com");
+        }
+    }
+
+    private void addPointsLine() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Student student = registry.findById(StudentIdAllocator.idOf(random.nextInt(students)));
+        ReentrantLock lock = student.lock();
+        try {
+            for (Course course : courses) {
+                student.updatePoints(course, 1 + random.nextInt(3));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addPoints01Thread() {
+        addPointsLine();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void addPoints02Threads() {
+        addPointsLine();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addPoints04Threads() {
+        addPointsLine();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void addPoints08Threads() {
+        addPointsLine();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void addPoints16Threads() {
+        addPointsLine();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void addPoints32Threads() {
+        addPointsLine();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(7)
+    public void mixedWriter() {
+        addPointsLine();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public CourseStatistics.Summary mixedStatisticsReader() {
+        return statistics.getSummary();
+    }
+}
@@ -0,0 +1,77 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// One 'add students' credential check: the old String.matches calls, the same patterns precompiled,
+// and the single-pass CredentialValidator.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CredentialValidatorBenchmark {
+    private static final String nameRegex = "^(?<!['-])[a-zA-Z][a-zA-Z' -]+(?<!['-])$";
+    private static final String adjacentRegex = "^(?!.*['-]{2})[A-Za-z' -]+$";
+    private static final String emailRegex = "^[\\w.]+@\\w+\\.\\w+$";
+    private static final Pattern namePattern = Pattern.compile(nameRegex);
+    private static final Pattern adjacentPattern = Pattern.compile(adjacentRegex);
+    private static final Pattern emailPattern = Pattern.compile(emailRegex);
+
+    private static final String[][] CREDENTIALS = {
+            {"John", "Smith", "jsmith@hotmail.com"},
+            {"Jean-Claude", "O'Connor Van-Damme", "jcvd@movies.org"},
+            {"Mary", "Ann--Jones", "mary@mail.com"},
+            {"Robert", "Jemison Van de Graaff", "robertvdgraaff@mit"},
+    };
+
+    private int next;
+
+    private String[] nextCredentials() {
+        String[] credentials = CREDENTIALS[next];
+        next = (next + 1) % CREDENTIALS.length;
+        return credentials;
+    }
+
+    @Benchmark
+    public void stringMatches(Blackhole blackhole) {
+        String[] c = nextCredentials();
+        String error;
+        if (c[0].length() < 2 || !c[0].matches(nameRegex) || !c[0].matches(adjacentRegex)) {
+            error = CredentialValidator.INCORRECT_FIRST_NAME;
+        } else if (c[1].length() < 2 || !c[1].matches(nameRegex) || !c[1].matches(adjacentRegex)) {
+            error = CredentialValidator.INCORRECT_LAST_NAME;
+        } else if (!c[2].matches(emailRegex)) {
+            error = CredentialValidator.INCORRECT_EMAIL;
+        } else {
+            error = null;
+        }
+        blackhole.consume(error);
+    }
+
+    @Benchmark
+    public void precompiledPatterns(Blackhole blackhole) {
+        String[] c = nextCredentials();
+        String error;
+        if (c[0].length() < 2 || !namePattern.matcher(c[0]).matches() || !adjacentPattern.matcher(c[0]).matches()) {
+            error = CredentialValidator.INCORRECT_FIRST_NAME;
+        } else if (c[1].length() < 2 || !namePattern.matcher(c[1]).matches() || !adjacentPattern.matcher(c[1]).matches()) {
+            error = CredentialValidator.INCORRECT_LAST_NAME;
+        } else if (!emailPattern.matcher(c[2]).matches()) {
+            error = CredentialValidator.INCORRECT_EMAIL;
+        } else {
+            error = null;
+        }
+        blackhole.consume(error);
+    }
+
+    @Benchmark
+    public void credentialValidator(Blackhole blackhole) {
+        String[] c = nextCredentials();
+        blackhole.consume(CredentialValidator.validate(c[0], c[1], c[2]));
+    }
+}
@@ -0,0 +1,95 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// "Enrolled in Java and DSA but not Spring" at 1M students: the course bitmaps against the HashSet<String> of
+// formatted IDs each course used to keep. Both sides copy their operands first, as the query command does.
+// main() prints the memory comparison: SyntheticDataset <students> students, then per course the enrollment
+// and completion bitmaps, a HashSet<String> with the same members, and a flat bit per student.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EnrollmentIndexBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"1000000"})
+    public int students;
+
+    private Tracker tracker;
+    private List<Set<String>> hashSets;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        tracker = populate(students);
+        hashSets = new ArrayList<>();
+        for (Course course : tracker.getCatalog().courses()) {
+            hashSets.add(toHashSet(course.getEnrolledStudents()));
+        }
+    }
+
+    private static Tracker populate(int students) {
+        Tracker tracker = new Tracker(() -> null, new BufferedOutputSink(OutputStream.nullOutputStream()));
+        new SyntheticDataset(SEED, tracker.getCatalog()).populate(tracker, students, students * 2L);
+        return tracker;
+    }
+
+    private static Set<String> toHashSet(StudentBitmap bitmap) {
+        Set<String> ids = new HashSet<>();
+        bitmap.forEach(slot -> ids.add(StudentIdAllocator.format(StudentIdAllocator.idOf(slot))));
+        return ids;
+    }
+
+    @Benchmark
+    public int bitmaps() {
+        List<Course> courses = tracker.getCatalog().courses();
+        return courses.get(0).getEnrolledStudents().and(courses.get(1).getEnrolledStudents())
+                .andNot(courses.get(3).getEnrolledStudents()).cardinality();
+    }
+
+    @Benchmark
+    public int hashSets() {
+        Set<String> result = new HashSet<>(hashSets.get(0));
+        result.retainAll(new HashSet<>(hashSets.get(1)));
+        result.removeAll(new HashSet<>(hashSets.get(3)));
+        return result.size();
+    }
+
+    public static void main(String[] args) {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Tracker tracker = populate(students);
+        long flatBitsBytes = (students + 7L) / 8;
+        System.out.printf("%d students; a flat bit per student takes %,d bytes per set%n", students, flatBitsBytes);
+        System.out.printf("%-10s %10s %16s %18s %16s %18s%n", "course", "enrolled", "bitmap bytes",
+                "HashSet bytes", "completed", "bitmap bytes");
+        for (Course course : tracker.getCatalog().courses()) {
+            StudentBitmap enrolled = course.getEnrolledStudents();
+            StudentBitmap completed = course.getCompletedStudents();
+            System.out.printf("%-10s %10d %,16d %,18d %16d %,18d%n", course.getName(), enrolled.cardinality(),
+                    enrolled.sizeInBytes(), retainedBytes(enrolled), completed.cardinality(), completed.sizeInBytes());
+        }
+    }
+
+    // Heap growth from building the HashSet<String>, measured across full collections.
+    private static long retainedBytes(StudentBitmap bitmap) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Set<String> ids = toHashSet(bitmap);
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        if (ids.size() != bitmap.cardinality()) {
+            throw new IllegalStateException();
+        }
+        return after - before;
+    }
+}
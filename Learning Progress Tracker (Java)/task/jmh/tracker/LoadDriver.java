@@ -0,0 +1,168 @@
+package tracker;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// Replays a production-like command mix against an in-process Tracker and reports per-command latency
+// percentiles and total throughput.
+//   LoadDriver [--students N] [--point-lines N] [--seed S] [--threads T] [--seconds D]
+//              [--rate COMMANDS_PER_SECOND] [--mix points=90,find=6,statistics=3,notify=1]
+// Each worker thread keeps one session per command, parked in that command's sub-mode the way an
+// automated client would. With --rate the load is open-loop: commands are scheduled at fixed intervals and
+// latency is measured from the scheduled start, so a stall shows up as queueing delay instead of being
+// hidden by fewer requests. Without it every thread sends as fast as it can.
+public class LoadDriver {
+    private static final String[] COMMANDS = {"points", "find", "statistics", "notify"};
+
+    private final Tracker tracker;
+    private final SyntheticDataset dataset;
+    private final int students;
+    private final int[] cumulativeWeights;
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+
+    public LoadDriver(Tracker tracker, SyntheticDataset dataset, int students, Map<String, Integer> mix) {
+        this.tracker = tracker;
+        this.dataset = dataset;
+        this.students = students;
+        cumulativeWeights = new int[COMMANDS.length];
+        int total = 0;
+        for (int i = 0; i < COMMANDS.length; i++) {
+            total += mix.getOrDefault(COMMANDS[i], 0);
+            cumulativeWeights[i] = total;
+            latencies.put(COMMANDS[i], new LatencyHistogram());
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The command mix has no weight");
+        }
+    }
+
+    // Runs for the given time and returns the histograms by command.
+    public Map<String, LatencyHistogram> run(int threads, long seconds, double rate, long seed)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long intervalNanos = rate > 0 ? (long) (threads * 1e9 / rate) : 0;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(seed + t);
+            Thread worker = new Thread(() -> drive(random, deadline, intervalNanos), "load-driver-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return latencies;
+    }
+
+    private void drive(SplittableRandom random, long deadline, long intervalNanos) {
+        OutputSink discard = new BufferedOutputSink(OutputStream.nullOutputStream());
+        NotificationDispatcher notifications = NotificationDispatcher.synchronous(new ConsoleTransport(discard));
+        Tracker points = tracker.session(discard, notifications);
+        Tracker finding = tracker.session(discard, notifications);
+        Tracker main = tracker.session(discard, notifications);
+        points.accept("add points");
+        finding.accept("find");
+        LatencyHistogram[] histograms = latencies.values().toArray(new LatencyHistogram[0]);
+        long scheduled = System.nanoTime();
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNanos > 0) {
+                scheduled += intervalNanos;
+                if (scheduled > now) {
+                    LockSupport.parkNanos(scheduled - now);
+                }
+            } else {
+                scheduled = now;
+            }
+            if (scheduled >= deadline) {
+                return;
+            }
+            int command = pick(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+            switch (command) {
+                case 0 -> points.accept(dataset.pointsLine(random, students));
+                case 1 -> finding.accept(Integer.toString(StudentIdAllocator.idOf(dataset.nextStudent(random, students))));
+                case 2 -> {
+                    main.accept("statistics");
+                    main.accept("back");
+                }
+                default -> main.accept("notify");
+            }
+            histograms[command].record(System.nanoTime() - scheduled);
+        }
+    }
+
+    private int pick(int draw) {
+        int command = 0;
+        while (draw >= cumulativeWeights[command]) {
+            command++;
+        }
+        return command;
+    }
+
+    static void printReport(Map<String, LatencyHistogram> latencies, long seconds, OutputSink out) {
+        out.println("command      count    per sec    mean ms     p50 ms     p90 ms     p99 ms   p99.9 ms     max ms");
+        long total = 0;
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            total += histogram.getCount();
+            out.append(String.format("%-10s %7d %10.0f %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f",
+                    entry.getKey(), histogram.getCount(), (double) histogram.getCount() / seconds,
+                    histogram.getMeanNanos() / 1e6, histogram.getPercentileNanos(50) / 1e6,
+                    histogram.getPercentileNanos(90) / 1e6, histogram.getPercentileNanos(99) / 1e6,
+                    histogram.getPercentileNanos(99.9) / 1e6, histogram.getMaxNanos() / 1e6)).newLine();
+        }
+        out.append(String.format("total      %7d %10.0f", total, (double) total / seconds)).newLine();
+        out.flush();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int students = 1_000_000;
+        long pointLines = -1;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seconds = 30;
+        double rate = 0;
+        Map<String, Integer> mix = new LinkedHashMap<>(Map.of("points", 90, "find", 6, "statistics", 3, "notify", 1));
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--students" -> students = Integer.parseInt(value);
+                case "--point-lines" -> pointLines = Long.parseLong(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--seconds" -> seconds = Long.parseLong(value);
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--mix" -> {
+                    mix.clear();
+                    for (String part : value.split(",")) {
+                        String[] weight = part.split("=");
+                        mix.put(weight[0].trim(), Integer.parseInt(weight[1].trim()));
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        OutputSink out = new BufferedOutputSink(System.out);
+        Tracker tracker = new Tracker(() -> null, new BufferedOutputSink(OutputStream.nullOutputStream()));
+        SyntheticDataset dataset = new SyntheticDataset(seed, tracker.getCatalog());
+        long started = System.nanoTime();
+        dataset.populate(tracker, students, pointLines >= 0 ? pointLines : students * 2L);
+        out.append(String.format("Populated %d students in %.1f s; running %d threads for %d s at %s%n",
+                students, (System.nanoTime() - started) / 1e9, threads, seconds,
+                rate > 0 ? String.format("%.0f commands/s", rate) : "full speed")).flush();
+
+        Map<String, LatencyHistogram> latencies =
+                new LoadDriver(tracker, dataset, students, mix).run(threads, seconds, rate, seed);
+        printReport(latencies, seconds, out);
+        tracker.shutdown();
+    }
+}
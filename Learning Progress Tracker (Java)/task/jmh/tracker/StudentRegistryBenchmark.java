@@ -0,0 +1,52 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class StudentRegistryBenchmark {
+
+    @Param({"1000", "100000", "1000000", "5000000"})
+    public int students;
+
+    private StudentRegistry registry;
+    private String[] ids;
+    private String[] emails;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        registry = new StudentRegistry();
+        ids = new String[students];
+        emails = new String[students];
+        for (int i = 0; i < students; i++) {
+            Student student = registry.register("First", "Last", "student" + i + "@mail.com");
+            ids[i] = student.getID();
+            emails[i] = student.getEmail();
+        }
+    }
+
+    @Benchmark
+    public Student findById() {
+        return registry.findById(ids[ThreadLocalRandom.current().nextInt(students)]);
+    }
+
+    @Benchmark
+    public boolean containsEmail() {
+        return registry.containsEmail(emails[ThreadLocalRandom.current().nextInt(students)]);
+    }
+
+    @Benchmark
+    public int addPointsLine() {
+        Student student = registry.findById(ids[ThreadLocalRandom.current().nextInt(students)]);
+        Course course = registry.getPoints().getCourses().get(0);
+        student.updatePoints(course, 1);
+        return student.getPointsForCourse(course);
+    }
+}
@@ -0,0 +1,152 @@
+package tracker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+// Deterministic student populations and point traffic for benchmarks and load tests.
+// Student i always gets the same credentials for a given seed, and they pass CredentialValidator: names mix
+// hyphens, apostrophes and multi-word last names, emails are unique through the index.
+// Points are skewed two ways: course c is touched by a line with probability 0.9 * 0.6^c, so the first
+// catalog courses are the busy ones, and students are drawn with a cubic bias towards low indexes,
+// so a small set of active students completes courses while the long tail barely moves.
+public final class SyntheticDataset {
+    private static final String[] FIRST_NAMES = {
+            "John", "Jane", "Mary-Ann", "Olmos", "Li", "Jean-Paul", "Aisha", "Dmitri", "Zoe", "Kwame",
+            "Ingrid", "Mateo", "Priya", "Yusuf", "Hana", "O'Neil", "Sven", "Amara", "Nikolai", "Chen"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Doe", "O'Connor", "van Dyke", "Nguyen", "Garcia-Lopez", "Ivanov", "Okafor", "Kim",
+            "de la Cruz", "Tanaka", "Muller", "Haddad", "Silva", "Kowalski", "Mac Donald", "Rossi", "Sato"};
+    private static final String[] DOMAINS = {"mail.com", "example.org", "uni.edu", "corp.io"};
+    private static final double FIRST_COURSE_ACTIVITY = 0.9;
+    private static final double COURSE_ACTIVITY_DECAY = 0.6;
+
+    private final long seed;
+    private final double[] courseActivity;
+
+    public SyntheticDataset(long seed, CourseCatalog catalog) {
+        this.seed = seed;
+        courseActivity = new double[catalog.size()];
+        for (int i = 0; i < courseActivity.length; i++) {
+            courseActivity[i] = FIRST_COURSE_ACTIVITY * Math.pow(COURSE_ACTIVITY_DECAY, i);
+        }
+    }
+
+    public String firstName(int index) {
+        return FIRST_NAMES[random(index).nextInt(FIRST_NAMES.length)];
+    }
+
+    public String lastName(int index) {
+        SplittableRandom random = random(index);
+        random.nextInt();
+        return LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    public String email(int index) {
+        String first = firstName(index).toLowerCase().replaceAll("[^a-z]", "");
+        String last = lastName(index).toLowerCase().replaceAll("[^a-z]", "");
+        return first + '.' + last + index + '@' + DOMAINS[index & (DOMAINS.length - 1)];
+    }
+
+    // The line 'add students' takes for student i.
+    public String studentLine(int index) {
+        return firstName(index) + ' ' + lastName(index) + ' ' + email(index);
+    }
+
+    // Index of the next active student, biased towards the start of the population.
+    public int nextStudent(SplittableRandom random, int students) {
+        double u = random.nextDouble();
+        return (int) (students * u * u * u);
+    }
+
+    // One 'add points' line's values, one per course. At least one course gets points.
+    public int[] nextPoints(SplittableRandom random) {
+        int[] points = new int[courseActivity.length];
+        boolean any = false;
+        for (int i = 0; i < points.length; i++) {
+            if (random.nextDouble() < courseActivity[i]) {
+                points[i] = 1 + Math.min(20, (int) (-Math.log(1 - random.nextDouble()) * 4));
+                any = true;
+            }
+        }
+        if (!any) {
+            points[0] = 1 + random.nextInt(5);
+        }
+        return points;
+    }
+
+    public String pointsLine(SplittableRandom random, int students) {
+        StringBuilder line = new StringBuilder(32).append(StudentIdAllocator.idOf(nextStudent(random, students)));
+        for (int value : nextPoints(random)) {
+            line.append(' ').append(value);
+        }
+        return line.toString();
+    }
+
+    // Registers students 0..students-1 into an empty tracker, so student i gets the ID of slot i, then applies
+    // pointLines skewed point lines. Leaderboards are rebuilt once at the end instead of kept ranked.
+    public void populate(Tracker tracker, int students, long pointLines) {
+        StudentRegistry registry = tracker.getStudents();
+        registry.reserve(registry.size() + students);
+        for (int i = 0; i < students; i++) {
+            tracker.registerStudent(firstName(i), lastName(i), email(i));
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        registry.suspendRanking();
+        try {
+            for (long line = 0; line < pointLines; line++) {
+                Student student = registry.findById(StudentIdAllocator.idOf(nextStudent(random, students)));
+                tracker.addPoints(student, nextPoints(random));
+            }
+        } finally {
+            registry.resumeRanking();
+        }
+    }
+
+    // A CSV for 'import students', with a header row.
+    public void writeStudents(Path path, int students) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(path)) {
+            OutputSink out = new BufferedOutputSink(stream);
+            out.println("firstName,lastName,email");
+            for (int i = 0; i < students; i++) {
+                out.append(firstName(i)).append(',').append(lastName(i)).append(',').append(email(i)).newLine();
+            }
+            out.flush();
+        }
+    }
+
+    // A points log for 'import points'.
+    public void writePoints(Path path, int students, long lines) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (OutputStream stream = Files.newOutputStream(path)) {
+            OutputSink out = new BufferedOutputSink(stream);
+            for (long line = 0; line < lines; line++) {
+                out.println(pointsLine(random, students));
+            }
+            out.flush();
+        }
+    }
+
+    private SplittableRandom random(int index) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+    }
+
+    // Usage: SyntheticDataset <students> <point lines> <output directory> [seed]
+    // Writes students.csv and points.log for the import commands.
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: SyntheticDataset <students> <point lines> <output directory> [seed]");
+            System.exit(2);
+        }
+        int students = Integer.parseInt(args[0]);
+        long lines = Long.parseLong(args[1]);
+        Path directory = Files.createDirectories(Path.of(args[2]));
+        SyntheticDataset dataset = new SyntheticDataset(args.length > 3 ? Long.parseLong(args[3]) : 1,
+                CourseCatalog.defaults());
+        dataset.writeStudents(directory.resolve("students.csv"), students);
+        dataset.writePoints(directory.resolve("points.log"), students, lines);
+        System.err.println("Wrote " + students + " students and " + lines + " point lines to " + directory);
+    }
+}
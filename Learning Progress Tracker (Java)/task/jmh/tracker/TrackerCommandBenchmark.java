@@ -0,0 +1,149 @@
+package tracker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Every console command, driven through Tracker.accept() exactly as typed, against synthetic populations.
+// Output is fully formatted and encoded, then discarded. Each sub-mode benchmark has its own session,
+// parked in that sub-mode, over the shared population.
+// Per-line commands report throughput and a latency distribution (SampleTime); commands whose output
+// grows with the population ('list', course details, 'notify') report the time of one run.
+// Run with -prof gc for allocation rates, e.g. ./gradlew jmh -Pjmh.include=TrackerCommandBenchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+public class TrackerCommandBenchmark {
+    private static final long SEED = 42;
+    private static final int NOTIFY_BATCH = 1000;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int students;
+
+    private SyntheticDataset dataset;
+    private Tracker tracker;
+    private Tracker adding;
+    private Tracker pointsSession;
+    private Tracker finding;
+    private Tracker details;
+    private SplittableRandom random;
+    private String[] ids;
+    private int nextNewStudent;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        OutputSink discard = new BufferedOutputSink(OutputStream.nullOutputStream());
+        tracker = new Tracker(() -> null, discard);
+        dataset = new SyntheticDataset(SEED, tracker.getCatalog());
+        dataset.populate(tracker, students, students * 2L);
+        adding = session("add students");
+        pointsSession = session("add points");
+        finding = session("find");
+        details = session("statistics");
+        random = new SplittableRandom(SEED);
+        ids = new String[Math.min(students, 1 << 16)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = Integer.toString(StudentIdAllocator.idOf(dataset.nextStudent(random, students)));
+        }
+        nextNewStudent = students;
+    }
+
+    private Tracker session(String command) {
+        OutputSink discard = new BufferedOutputSink(OutputStream.nullOutputStream());
+        Tracker session = tracker.session(discard, NotificationDispatcher.synchronous(new ConsoleTransport(discard)));
+        session.accept(command);
+        return session;
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        tracker.shutdown();
+    }
+
+    // Registers a new student per call, so the population grows slightly during the run.
+    @Benchmark
+    public void addStudentsLine() {
+        adding.accept(dataset.studentLine(nextNewStudent++));
+    }
+
+    @Benchmark
+    public void addPointsLine() {
+        pointsSession.accept(dataset.pointsLine(random, students));
+    }
+
+    @Benchmark
+    public void findLine() {
+        finding.accept(ids[random.nextInt(ids.length)]);
+    }
+
+    // The summary is cached between changes, so one points line precedes each call to keep it honest.
+    @Benchmark
+    public void statisticsAfterUpdate() {
+        pointsSession.accept(dataset.pointsLine(random, students));
+        tracker.accept("statistics");
+        tracker.accept("back");
+    }
+
+    // Sums the courses' time buckets, so it should not grow with the population.
+    @Benchmark
+    public void statisticsWindow() {
+        tracker.accept("statistics window 1d");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public void courseDetails() {
+        details.accept("Java");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public void list() {
+        tracker.accept("list");
+    }
+
+    // Before each run, DSA is completed for NOTIFY_BATCH students from the quiet end of the population,
+    // which rarely gets points; the run then times 'notify' sending them their certificates.
+    @State(Scope.Benchmark)
+    public static class PendingCompletions {
+        private int nextStudent = -1;
+
+        @Setup(Level.Invocation)
+        public void queue(TrackerCommandBenchmark benchmark) {
+            Tracker tracker = benchmark.tracker;
+            if (nextStudent < 0) {
+                nextStudent = benchmark.students - 1;
+            }
+            Course dsa = tracker.getCatalog().get(1);
+            int[] points = new int[tracker.getCatalog().size()];
+            points[1] = dsa.getTotalNumberOfPoints();
+            for (int queued = 0; queued < NOTIFY_BATCH && nextStudent >= 0; nextStudent--) {
+                Student student = tracker.getStudents().findById(StudentIdAllocator.idOf(nextStudent));
+                if (student.getPointsForCourse(dsa) == 0) {
+                    tracker.addPoints(student, points);
+                    queued++;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public void notifyCompletions(PendingCompletions pending) {
+        tracker.accept("notify");
+    }
+}
@@ -0,0 +1,146 @@
+package tracker;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Submissions and points of one course in rings of time buckets: by minute for the last hour, by hour for the
+// last week and by day for the last 90 days. An update only adds to its minute bucket. A bucket whose slot is
+// taken over by a later bucket is rolled up into the next ring, so each count is in exactly one bucket and a
+// window is summed from a few hundred buckets at most, never from the students.
+// The counters are not part of the course aggregates' consistency protocol: a window is a rate estimate. A read
+// that races with a roll-up can miss the bucket being moved, and an update that reached its bucket only after the
+// slot was taken over, an hour later, is lost.
+public class ActivityWindow {
+    public static final long MINUTE_MILLIS = 60_000;
+    public static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+    public static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+    public static final long MAX_WINDOW_MILLIS = 90 * DAY_MILLIS;
+
+    private final LongSupplier clock;
+    private final Ring days = new Ring(DAY_MILLIS, (int) (MAX_WINDOW_MILLIS / DAY_MILLIS), null);
+    private final Ring hours = new Ring(HOUR_MILLIS, 7 * 24, days);
+    private final Ring minutes = new Ring(MINUTE_MILLIS, 60, hours);
+
+    public ActivityWindow() {
+        this(System::currentTimeMillis);
+    }
+
+    // The clock returns milliseconds since the epoch.
+    ActivityWindow(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public record Totals(long submissions, long points) {
+    }
+
+    public void record(int points) {
+        minutes.add(clock.getAsLong(), 1, points);
+    }
+
+    // Totals over the last windowMillis, in whole buckets of the finest ring that spans the window, the bucket
+    // in progress included: a 90-minute window covers the current hour and the one before it.
+    public Totals totals(long windowMillis) {
+        if (windowMillis <= 0 || windowMillis > MAX_WINDOW_MILLIS) {
+            throw new IllegalArgumentException("Window of " + windowMillis + " ms");
+        }
+        long now = clock.getAsLong();
+        Ring resolution = resolution(windowMillis);
+        long buckets = (windowMillis + resolution.bucketMillis - 1) / resolution.bucketMillis;
+        long from = (now / resolution.bucketMillis - buckets + 1) * resolution.bucketMillis;
+        long[] totals = new long[2];
+        for (Ring ring = minutes; ring != null; ring = ring == resolution ? null : ring.next) {
+            ring.sum(from, now, totals);
+        }
+        return new Totals(totals[0], totals[1]);
+    }
+
+    private Ring resolution(long windowMillis) {
+        if (windowMillis <= minutes.span()) {
+            return minutes;
+        }
+        return windowMillis <= hours.span() ? hours : days;
+    }
+
+    // Parses durations like 15m, 1h, 2d or 1w into milliseconds; returns 0 for anything else, or beyond 90 days.
+    public static long parseDuration(String text) {
+        String duration = text.trim().toLowerCase(Locale.ROOT);
+        if (!duration.matches("\\d{1,6}[mhdw]")) {
+            return 0;
+        }
+        long amount = Long.parseLong(duration.substring(0, duration.length() - 1));
+        long millis = amount * switch (duration.charAt(duration.length() - 1)) {
+            case 'm' -> MINUTE_MILLIS;
+            case 'h' -> HOUR_MILLIS;
+            case 'd' -> DAY_MILLIS;
+            default -> 7 * DAY_MILLIS;
+        };
+        return millis > MAX_WINDOW_MILLIS ? 0 : millis;
+    }
+
+    private static final class Bucket {
+        final long stamp;
+        final LongAdder submissions = new LongAdder();
+        final LongAdder points = new LongAdder();
+
+        Bucket(long stamp) {
+            this.stamp = stamp;
+        }
+    }
+
+    private static final class Ring {
+        final long bucketMillis;
+        final AtomicReferenceArray<Bucket> buckets;
+        // Where buckets go when their slot is taken over; the last ring drops them.
+        final Ring next;
+
+        Ring(long bucketMillis, int size, Ring next) {
+            this.bucketMillis = bucketMillis;
+            buckets = new AtomicReferenceArray<>(size);
+            this.next = next;
+        }
+
+        long span() {
+            return bucketMillis * buckets.length();
+        }
+
+        void add(long millis, long submissions, long points) {
+            long stamp = millis / bucketMillis;
+            int index = (int) (stamp % buckets.length());
+            Bucket bucket = buckets.get(index);
+            while (bucket == null || bucket.stamp != stamp) {
+                if (bucket != null && bucket.stamp > stamp) {
+                    // Older than this ring holds: a late roll-up, or the clock went back.
+                    if (next != null) {
+                        next.add(millis, submissions, points);
+                    }
+                    return;
+                }
+                Bucket fresh = new Bucket(stamp);
+                if (buckets.compareAndSet(index, bucket, fresh)) {
+                    if (bucket != null && next != null) {
+                        next.add(bucket.stamp * bucketMillis, bucket.submissions.sum(), bucket.points.sum());
+                    }
+                    bucket = fresh;
+                } else {
+                    bucket = buckets.get(index);
+                }
+            }
+            bucket.submissions.add(submissions);
+            bucket.points.add(points);
+        }
+
+        // Adds the buckets that start at or after from, up to the one in progress at now.
+        void sum(long from, long now, long[] totals) {
+            long current = now / bucketMillis;
+            for (int i = 0; i < buckets.length(); i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket != null && bucket.stamp <= current && bucket.stamp * bucketMillis >= from) {
+                    totals[0] += bucket.submissions.sum();
+                    totals[1] += bucket.points.sum();
+                }
+            }
+        }
+    }
+}
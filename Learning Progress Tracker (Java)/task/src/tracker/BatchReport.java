@@ -0,0 +1,91 @@
+package tracker;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-command counters collected while a batch script runs, in order of first appearance.
+public class BatchReport {
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private long lines;
+    private long elapsedNanos;
+
+    public static class Entry {
+        private final String command;
+        private long count;
+        private long lines;
+        private long nanos;
+
+        private Entry(String command) {
+            this.command = command;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getLines() {
+            return lines;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    void record(String command, long lines, long nanos) {
+        Entry entry = entries.computeIfAbsent(command, Entry::new);
+        entry.count++;
+        entry.lines += lines;
+        entry.nanos += nanos;
+    }
+
+    void finish(long lines, long elapsedNanos) {
+        this.lines = lines;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Collection<Entry> getEntries() {
+        return entries.values();
+    }
+
+    public Entry getEntry(String command) {
+        return entries.get(command);
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public void printTo(OutputSink out) {
+        out.append("Batch finished: ").append(lines).append(" lines in ");
+        appendMillis(out, elapsedNanos).append(" ms").newLine();
+        for (Entry entry : entries.values()) {
+            out.append("  ").append(entry.command).append(": ").append(entry.count).append(" runs, ")
+                    .append(entry.lines).append(" lines, ");
+            appendMillis(out, entry.nanos).append(" ms").newLine();
+        }
+        out.flush();
+    }
+
+    private static OutputSink appendMillis(OutputSink out, long nanos) {
+        long micros = nanos / 1_000;
+        out.append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            out.append('0');
+        }
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+}
@@ -0,0 +1,150 @@
+package tracker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// Encodes straight into a byte buffer (UTF-8, with an ASCII fast path) and writes it to the underlying
+// stream only when the buffer fills or flush() is called. Not thread-safe.
+public class BufferedOutputSink implements OutputSink {
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private final byte[] digits = new byte[20];
+    private int position;
+    private Runnable writeBarrier = () -> {
+    };
+
+    public BufferedOutputSink(OutputStream out) {
+        this(out, DEFAULT_CAPACITY);
+    }
+
+    public BufferedOutputSink(OutputStream out, int capacity) {
+        this.out = out;
+        buffer = new byte[Math.max(capacity, 16)];
+    }
+
+    @Override
+    public OutputSink append(CharSequence text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                ensureRoom(2);
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                ensureRoom(4);
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                ensureRoom(3);
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public OutputSink append(char c) {
+        if (c < 0x80) {
+            put((byte) c);
+            return this;
+        }
+        return append(String.valueOf(c));
+    }
+
+    @Override
+    public OutputSink append(int value) {
+        return append((long) value);
+    }
+
+    @Override
+    public OutputSink append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(Long.toString(value));
+        }
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        ensureRoom(count);
+        while (count > 0) {
+            buffer[position++] = digits[--count];
+        }
+        return this;
+    }
+
+    @Override
+    public OutputSink append(double value) {
+        return append(Double.toString(value));
+    }
+
+    @Override
+    public OutputSink newLine() {
+        ensureRoom(LINE_SEPARATOR.length);
+        for (byte b : LINE_SEPARATOR) {
+            buffer[position++] = b;
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        try {
+            drain();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void setWriteBarrier(Runnable barrier) {
+        writeBarrier = barrier;
+    }
+
+    private void put(byte b) {
+        if (position == buffer.length) {
+            drainUnchecked();
+        }
+        buffer[position++] = b;
+    }
+
+    private void ensureRoom(int bytes) {
+        if (buffer.length - position < bytes) {
+            drainUnchecked();
+        }
+    }
+
+    private void drainUnchecked() {
+        try {
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            writeBarrier.run();
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package tracker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Reads UTF-8 lines from a channel into one reusable buffer, scanning for '\n' by hand.
+// Each read() takes whatever the channel has available, so it also works on interactive pipes.
+// ASCII lines are turned into Strings with a plain byte copy; other lines are decoded as UTF-8.
+public class ChannelCommandSource implements CommandSource {
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private byte[] buffer;
+    private ByteBuffer view;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    public ChannelCommandSource(ReadableByteChannel channel) {
+        this(channel, DEFAULT_CAPACITY);
+    }
+
+    public ChannelCommandSource(ReadableByteChannel channel, int capacity) {
+        this.channel = channel;
+        buffer = new byte[Math.max(capacity, 16)];
+        view = ByteBuffer.wrap(buffer);
+    }
+
+    @Override
+    public String readLine() {
+        int scanFrom = position;
+        while (true) {
+            for (int i = scanFrom; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    String line = decode(buffer, position, i);
+                    position = i + 1;
+                    return line;
+                }
+            }
+            if (endOfInput) {
+                if (position == limit) {
+                    return null;
+                }
+                String line = decode(buffer, position, limit);
+                position = limit;
+                return line;
+            }
+            scanFrom = limit - position;
+            fill();
+        }
+    }
+
+    private void fill() {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            view = ByteBuffer.wrap(buffer);
+        }
+        view.limit(buffer.length).position(limit);
+        try {
+            int read = channel.read(view);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                limit += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Turns buffer[start, end) into a line, dropping a trailing '\r'.
+    static String decode(byte[] buffer, int start, int end) {
+        if (end > start && buffer[end - 1] == '\r') {
+            end--;
+        }
+        for (int i = start; i < end; i++) {
+            if (buffer[i] < 0) {
+                return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+            }
+        }
+        return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,380 @@
+package tracker;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Append-only log of state-changing operations, one tab-separated record per line:
+//   G <generation>                      (header, rewritten each time a snapshot resets the journal)
+//   S <id> <first name> <last name> <email>
+//   P <id> <points per course...>
+//   N <id> <course ordinal>
+// A trailing line without a newline is a torn write from a crash; it is dropped on open.
+// Every record gets a commit sequence number. A caller that acknowledges a change waits with awaitDurable until
+// the policy's guarantee covers the record, see appendedSequence.
+public class CommandJournal implements AutoCloseable {
+    private static final int BUFFER_FLUSH_THRESHOLD = 64 * 1024;
+
+    public enum FsyncPolicy {
+        // fsync before each append returns
+        ALWAYS,
+        // a background flusher fsyncs the records appended since its last fsync together, at most the group commit
+        // interval after the first of them; awaitDurable waits for the fsync that covers a record
+        GROUP,
+        // each append is written to the OS before it returns but never fsynced: the records survive a crash of
+        // the process, not of the machine
+        NONE
+    }
+
+    // A point in the journal history; snapshots record the position they include everything up to.
+    public record Position(long generation, long offset) {
+    }
+
+    public interface Replayer {
+        void studentAdded(int id, String firstName, String lastName, String email);
+
+        void pointsAdded(int id, int[] points);
+
+        void completionNotified(int id, int course);
+    }
+
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final long groupCommitMillis;
+    private final Thread flusher;
+    private final StringBuilder record = new StringBuilder(128);
+    private ByteBuffer pending = ByteBuffer.allocate(2 * BUFFER_FLUSH_THRESHOLD);
+    private long generation;
+    private boolean dirty;
+    private boolean closed;
+    // Sequence of the last record appended, and of the last one the policy's guarantee covers.
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean flusherIdle;
+    private IOException flushFailure;
+
+    private CommandJournal(FileChannel channel, long generation, FsyncPolicy policy, long groupCommitMillis) {
+        this.channel = channel;
+        this.generation = generation;
+        this.policy = policy;
+        this.groupCommitMillis = groupCommitMillis;
+        if (policy == FsyncPolicy.GROUP) {
+            flusher = new Thread(this::runFlusher, "journal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    public static CommandJournal open(Path path, FsyncPolicy policy, long groupCommitMillis, Replayer replayer)
+            throws IOException {
+        return open(path, policy, groupCommitMillis, null, replayer);
+    }
+
+    // Replays the records that are not already part of the snapshot taken at snapshotPosition (null when
+    // there is no snapshot). A journal one generation ahead was reset after that snapshot and is replayed whole.
+    public static CommandJournal open(Path path, FsyncPolicy policy, long groupCommitMillis,
+                                      Position snapshotPosition, Replayer replayer) throws IOException {
+        boolean existing = Files.exists(path) && Files.size(path) > 0;
+        long generation = existing ? readGeneration(path)
+                : snapshotPosition == null ? 0 : snapshotPosition.generation() + 1;
+        long replayFrom = 0;
+        if (existing && snapshotPosition != null) {
+            if (generation == snapshotPosition.generation()) {
+                replayFrom = snapshotPosition.offset();
+            } else if (generation != snapshotPosition.generation() + 1) {
+                throw new IOException("Journal generation " + generation + " of " + path
+                        + " does not follow snapshot generation " + snapshotPosition.generation());
+            }
+        }
+        long validLength = existing ? replay(path, replayFrom, replayer) : 0;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        CommandJournal journal = new CommandJournal(channel, generation, policy, groupCommitMillis);
+        if (!existing) {
+            journal.writeHeader();
+        }
+        return journal;
+    }
+
+    public static long replay(Path path, Replayer replayer) throws IOException {
+        return replay(path, 0, replayer);
+    }
+
+    // Applies every complete record from the given offset on and returns the length of the valid prefix.
+    public static long replay(Path path, long from, Replayer replayer) throws IOException {
+        long validLength = from;
+        long lineNumber = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+            in.skipNBytes(from);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                lineNumber++;
+                try {
+                    apply(line.toString(StandardCharsets.UTF_8), replayer);
+                } catch (RuntimeException e) {
+                    throw new IOException("Corrupt journal record at line " + lineNumber + " after offset "
+                            + from + " of " + path, e);
+                }
+                validLength += line.size() + 1;
+                line.reset();
+            }
+        }
+        return validLength;
+    }
+
+    // Journals written before generations existed have no header and count as generation 0.
+    private static long readGeneration(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 64)) {
+            StringBuilder header = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1 && b != '\n' && header.length() < 32) {
+                header.append((char) b);
+            }
+            return header.length() > 2 && header.charAt(0) == 'G' && header.charAt(1) == '\t'
+                    ? Long.parseLong(header.substring(2)) : 0;
+        }
+    }
+
+    private static void apply(String line, Replayer replayer) {
+        String[] fields = line.split("\t");
+        switch (fields[0]) {
+            case "G" -> {
+            }
+            case "S" -> replayer.studentAdded(Integer.parseInt(fields[1]), fields[2], fields[3], fields[4]);
+            case "P" -> {
+                int[] points = new int[fields.length - 2];
+                for (int i = 0; i < points.length; i++) {
+                    points[i] = Integer.parseInt(fields[i + 2]);
+                }
+                replayer.pointsAdded(Integer.parseInt(fields[1]), points);
+            }
+            case "N" -> replayer.completionNotified(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+            default -> throw new IllegalArgumentException("Unknown record type " + fields[0]);
+        }
+    }
+
+    public synchronized void appendStudentAdded(Student student) throws IOException {
+        record.setLength(0);
+        record.append("S\t").append(student.getNumericID())
+                .append('\t').append(student.getFirstName())
+                .append('\t').append(student.getLastName())
+                .append('\t').append(student.getEmail());
+        append();
+    }
+
+    public synchronized void appendPointsAdded(int id, int[] points) throws IOException {
+        record.setLength(0);
+        record.append("P\t").append(id);
+        for (int point : points) {
+            record.append('\t').append(point);
+        }
+        append();
+    }
+
+    public synchronized void appendCompletionNotified(int id, int course) throws IOException {
+        record.setLength(0);
+        record.append("N\t").append(id).append('\t').append(course);
+        append();
+    }
+
+    private void append() throws IOException {
+        if (closed) {
+            throw new IOException("Journal is closed");
+        }
+        record.append('\n');
+        byte[] bytes = record.toString().getBytes(StandardCharsets.UTF_8);
+        if (pending.remaining() < bytes.length) {
+            writePending();
+            if (pending.capacity() < bytes.length) {
+                pending = ByteBuffer.allocate(bytes.length * 2);
+            }
+        }
+        pending.put(bytes);
+        dirty = true;
+        appendedSequence++;
+        switch (policy) {
+            case ALWAYS -> sync();
+            case GROUP -> {
+                if (pending.position() >= BUFFER_FLUSH_THRESHOLD) {
+                    writePending();
+                }
+                if (flusherIdle) {
+                    flusherIdle = false;
+                    notifyAll();
+                }
+            }
+            case NONE -> {
+                writePending();
+                durableSequence = appendedSequence;
+            }
+        }
+    }
+
+    // The commit sequence of the last record appended so far.
+    public synchronized long appendedSequence() {
+        return appendedSequence;
+    }
+
+    // Returns once the record with the given commit sequence is as durable as the policy makes it: fsynced for
+    // ALWAYS and GROUP, written to the OS for NONE. Only GROUP ever waits.
+    public synchronized void awaitDurable(long sequence) throws IOException {
+        boolean interrupted = false;
+        try {
+            while (durableSequence < sequence) {
+                if (flushFailure != null) {
+                    throw new IOException("Journal group commit failed", flushFailure);
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public synchronized Position position() throws IOException {
+        return new Position(generation, channel.position() + pending.position());
+    }
+
+    // Starts the next generation with an empty journal; called once a snapshot covering everything is on disk.
+    public synchronized void reset() throws IOException {
+        pending.clear();
+        channel.truncate(0);
+        channel.position(0);
+        generation++;
+        writeHeader();
+    }
+
+    private synchronized void writeHeader() throws IOException {
+        record.setLength(0);
+        record.append("G\t").append(generation);
+        append();
+        sync();
+    }
+
+    // Writes buffered records and forces them to disk.
+    public synchronized void sync() throws IOException {
+        writePending();
+        if (dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+        markDurable(appendedSequence);
+    }
+
+    private void markDurable(long sequence) {
+        if (sequence > durableSequence) {
+            durableSequence = sequence;
+            notifyAll();
+        }
+    }
+
+    private void writePending() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            channel.write(pending);
+        }
+        pending.clear();
+    }
+
+    // Waits for a record, gives later ones up to the group commit interval to join it, then writes them all
+    // under the journal lock and fsyncs outside it, so appends arriving while the disk is busy form the next group.
+    private void runFlusher() {
+        while (true) {
+            long group;
+            synchronized (this) {
+                try {
+                    while (!closed && appendedSequence == durableSequence) {
+                        flusherIdle = true;
+                        wait();
+                    }
+                    long deadline = System.nanoTime() + groupCommitMillis * 1_000_000;
+                    for (long left = groupCommitMillis; !closed && left > 0;
+                         left = (deadline - System.nanoTime()) / 1_000_000) {
+                        wait(left);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) {
+                    return;
+                }
+                group = appendedSequence;
+            }
+            try {
+                groupCommit(group);
+            } catch (IOException e) {
+                System.err.println("Journal group commit failed: " + e.getMessage());
+                synchronized (this) {
+                    flushFailure = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private void groupCommit(long group) throws IOException {
+        synchronized (this) {
+            writePending();
+            dirty = false;
+        }
+        channel.force(false);
+        synchronized (this) {
+            markDurable(group);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            try {
+                writePending();
+                if (policy != FsyncPolicy.NONE) {
+                    channel.force(false);
+                }
+                markDurable(appendedSequence);
+            } catch (IOException e) {
+                flushFailure = e;
+                notifyAll();
+                throw e;
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package tracker;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency and accepted/rejected line counts per command, shared by a tracker and all of its sessions.
+// Main-menu commands are recorded under their name, unknown and empty input under "(unknown)" and "(empty)",
+// and the lines a sub-mode takes under the sub-mode's own name ("add points line", "course details", ...).
+// Each command's latencies are striped over a few histograms by thread, so sessions on different threads
+// rarely touch the same counters; the stripes are merged when read.
+public class CommandMetrics implements CommandMetricsMXBean {
+    public static final String OBJECT_NAME = "tracker:type=CommandMetrics";
+    private static final int STRIPES = Integer.highestOneBit(Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    private final Map<String, Command> commands = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+
+    public static final class Command {
+        private final String name;
+        private final LatencyHistogram[] latencies = new LatencyHistogram[STRIPES];
+        private final LongAdder rejected = new LongAdder();
+
+        private Command(String name) {
+            this.name = name;
+            for (int i = 0; i < STRIPES; i++) {
+                latencies[i] = new LatencyHistogram();
+            }
+        }
+
+        // Every line is timed; only rejections are counted separately, accepted lines are the rest.
+        public void record(long nanos, boolean accepted) {
+            latencies[(int) Thread.currentThread().getId() & (STRIPES - 1)].record(nanos);
+            if (!accepted) {
+                rejected.increment();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getAccepted() {
+            long lines = 0;
+            for (LatencyHistogram stripe : latencies) {
+                lines += stripe.getCount();
+            }
+            // A rejection is counted after its latency, so a concurrent reader can briefly see it in both.
+            return Math.max(0, lines - rejected.sum());
+        }
+
+        public long getRejected() {
+            return rejected.sum();
+        }
+
+        public LatencyHistogram getLatencies() {
+            LatencyHistogram merged = new LatencyHistogram();
+            for (LatencyHistogram stripe : latencies) {
+                merged.add(stripe);
+            }
+            return merged;
+        }
+    }
+
+    // A point-in-time copy of one command's figures, in a shape JMX can publish as a table row.
+    public static final class CommandSummary {
+        private final String command;
+        private final long accepted;
+        private final long rejected;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double p999Millis;
+        private final double maxMillis;
+
+        private CommandSummary(Command command) {
+            LatencyHistogram latencies = command.getLatencies();
+            this.command = command.name;
+            accepted = command.getAccepted();
+            rejected = command.getRejected();
+            meanMillis = latencies.getMeanNanos() / 1e6;
+            p50Millis = latencies.getPercentileNanos(50) / 1e6;
+            p99Millis = latencies.getPercentileNanos(99) / 1e6;
+            p999Millis = latencies.getPercentileNanos(99.9) / 1e6;
+            maxMillis = latencies.getMaxNanos() / 1e6;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public long getAccepted() {
+            return accepted;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public double getMeanMillis() {
+            return meanMillis;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getP999Millis() {
+            return p999Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+    }
+
+    // The command's counters, created on first use. Callers keep the result instead of looking it up per line.
+    public Command command(String name) {
+        return commands.computeIfAbsent(name, Command::new);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Disabled metrics keep what they have recorded; the tracker just stops timing lines.
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public long getAcceptedLines() {
+        long lines = 0;
+        for (Command command : commands.values()) {
+            lines += command.getAccepted();
+        }
+        return lines;
+    }
+
+    @Override
+    public long getRejectedLines() {
+        long lines = 0;
+        for (Command command : commands.values()) {
+            lines += command.getRejected();
+        }
+        return lines;
+    }
+
+    // Commands that have seen at least one line, by name.
+    @Override
+    public List<CommandSummary> getCommands() {
+        List<CommandSummary> summaries = new ArrayList<>();
+        for (Command command : new TreeMap<>(commands).values()) {
+            if (command.getAccepted() + command.getRejected() > 0) {
+                summaries.add(new CommandSummary(command));
+            }
+        }
+        return summaries;
+    }
+
+    public void printTo(OutputSink out) {
+        out.println(String.format("%-18s %9s %9s %9s %9s %9s %9s %9s",
+                "command", "accepted", "rejected", "mean ms", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (CommandSummary summary : getCommands()) {
+            out.println(String.format("%-18s %9d %9d %9.3f %9.3f %9.3f %9.3f %9.3f",
+                    summary.command, summary.accepted, summary.rejected, summary.meanMillis,
+                    summary.p50Millis, summary.p99Millis, summary.p999Millis, summary.maxMillis));
+        }
+        out.append("Total ").append(getAcceptedLines()).append(" lines accepted, ")
+                .append(getRejectedLines()).append(" rejected.").newLine();
+    }
+
+    @Override
+    public String report() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink out = new BufferedOutputSink(bytes);
+        printTo(out);
+        out.flush();
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    // Publishes these metrics on the platform MBean server, replacing an earlier tracker's in the same JVM.
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register the metrics MBean", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package tracker;
+
+import java.util.List;
+
+// The JMX view of CommandMetrics, registered as tracker:type=CommandMetrics.
+public interface CommandMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getAcceptedLines();
+
+    long getRejectedLines();
+
+    List<CommandMetrics.CommandSummary> getCommands();
+
+    // The table the 'metrics' command prints.
+    String report();
+}
@@ -0,0 +1,19 @@
+package tracker;
+
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+// Line-oriented input for the tracker. readLine() returns null once the input is exhausted.
+public interface CommandSource {
+
+    String readLine();
+
+    // Piped or redirected input gets the channel reader; an interactive terminal keeps the Scanner.
+    static CommandSource forStandardInput() {
+        return forStream(System.in, System.console() != null);
+    }
+
+    static CommandSource forStream(InputStream in, boolean interactive) {
+        return interactive ? new ScannerCommandSource(in) : new ChannelCommandSource(Channels.newChannel(in));
+    }
+}
@@ -0,0 +1,61 @@
+package tracker;
+
+import java.util.Arrays;
+
+// Course completions recorded by Student.updatePoints since the last notify run.
+// Each (slot, course) pair is queued at most once until the queue is drained.
+// The pending bits in the PointsMatrix are only touched under this queue's monitor.
+public class CompletionQueue {
+    private final PointsMatrix points;
+    private long[] events;
+    private int size;
+
+    public CompletionQueue(PointsMatrix points) {
+        this.points = points;
+        events = new long[64];
+    }
+
+    public synchronized void offer(int slot, int course) {
+        if (points.isCompletionPending(slot, course)) {
+            return;
+        }
+        points.setCompletionPending(slot, course, true);
+        if (size == events.length) {
+            events = Arrays.copyOf(events, size * 2);
+        }
+        events[size++] = encode(slot, course);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Returns the queued events ordered by slot, then course, leaving the queue unchanged.
+    public synchronized long[] peekAll() {
+        long[] queued = Arrays.copyOf(events, size);
+        Arrays.sort(queued);
+        return queued;
+    }
+
+    // Returns the queued events ordered by slot, then course, and empties the queue.
+    public synchronized long[] drain() {
+        long[] drained = peekAll();
+        for (long event : drained) {
+            points.setCompletionPending(slotOf(event), courseOf(event), false);
+        }
+        size = 0;
+        return drained;
+    }
+
+    public static long encode(int slot, int course) {
+        return (long) slot << 32 | course;
+    }
+
+    public static int slotOf(long event) {
+        return (int) (event >>> 32);
+    }
+
+    public static int courseOf(long event) {
+        return (int) event;
+    }
+}
@@ -0,0 +1,22 @@
+package tracker;
+
+import java.util.List;
+
+// Prints notifications into the tracker's own output. The sink is not thread-safe,
+// so this transport is meant for a synchronous NotificationDispatcher.
+public class ConsoleTransport implements Transport {
+    private final OutputSink out;
+
+    public ConsoleTransport(OutputSink out) {
+        this.out = out;
+    }
+
+    @Override
+    public synchronized void send(List<Notification> batch) {
+        for (Notification notification : batch) {
+            out.append("To: ").append(notification.to()).newLine();
+            out.append("Re: ").append(notification.subject()).newLine();
+            out.println(notification.body());
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package tracker;
 
-import java.util.HashSet;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 public class Course {
     public static final int TOTAL_POINTS_JAVA = 600;
@@ -10,18 +9,33 @@ public class Course {
     public static final int TOTAL_POINTS_DATABASE = 480;
     public static final int TOTAL_POINTS_SPRING = 550;
 
+    private final int ordinal;
     private final String name;
     private String description;
     private final int totalNumberOfPoints;
-    private int totalNumberOfCompletedTasks;
-    private int totalNumberOfCompletedTasksPoint;
-
-    private final Set<String> enrolledStudentsID;
+    private final LongAdder totalNumberOfCompletedTasks = new LongAdder();
+    private final LongAdder totalNumberOfCompletedTasksPoint = new LongAdder();
+
+    // Every aggregate change is bracketed by these counters, see CourseStatistics for the readers' side.
+    private final LongAdder updatesStarted = new LongAdder();
+    private final LongAdder updatesFinished = new LongAdder();
+    private volatile boolean updatesPaused;
+
+    // By student slot: who is enrolled now, and who has ever reached the course's total.
+    private final StudentBitmap enrolledStudents = new StudentBitmap();
+    private final StudentBitmap completedStudents = new StudentBitmap();
+    // Recent submissions by minute, hour and day, for 'statistics window'.
+    private final ActivityWindow activity;
+
+    public Course(int ordinal, String name, int totalNumberOfPoints) {
+        this(ordinal, name, totalNumberOfPoints, new ActivityWindow());
+    }
 
-    public Course(String name, int totalNumberOfPoints) {
+    Course(int ordinal, String name, int totalNumberOfPoints, ActivityWindow activity) {
+        this.ordinal = ordinal;
         this.name = name;
         this.totalNumberOfPoints = totalNumberOfPoints;
-        enrolledStudentsID = new HashSet<>();
+        this.activity = activity;
         description = "";
     }
 
@@ -35,28 +49,110 @@ public class Course {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, totalNumberOfPoints);
+        return 31 * name.hashCode() + totalNumberOfPoints;
     }
 
     public int getTotalEnrolledStudents() {
-        return enrolledStudentsID.size();
+        return enrolledStudents.cardinality();
     }
 
-    public boolean hasAlreadyEnrolled(String ID) {
-        return enrolledStudentsID.contains(ID);
+    public boolean hasAlreadyEnrolled(int ID) {
+        return enrolledStudents.contains(StudentIdAllocator.slotOf(ID));
     }
 
     public void enrollStudent(Student student) {
-        enrolledStudentsID.add(student.getID());
+        beginUpdate();
+        enrolledStudents.add(student.getSlot());
+        updatesFinished.increment();
+    }
+
+    // A copy of the enrolled students' slots that later enrollments do not change.
+    public StudentBitmap getEnrolledStudents() {
+        return enrolledStudents.snapshot();
+    }
+
+    public int getTotalCompletedStudents() {
+        return completedStudents.cardinality();
+    }
+
+    public void recordCompletion(Student student) {
+        completedStudents.add(student.getSlot());
     }
 
-    public int getTotalNumberOfCompletedTasks() {
-        return totalNumberOfCompletedTasks;
+    public StudentBitmap getCompletedStudents() {
+        return completedStudents.snapshot();
+    }
+
+    public long getTotalNumberOfCompletedTasks() {
+        return totalNumberOfCompletedTasks.sum();
+    }
+
+    public long getTotalNumberOfCompletedTasksPoint() {
+        return totalNumberOfCompletedTasksPoint.sum();
     }
 
     public void updateTotalNumberOfCompletedTasks(int tasksCount, int point) {
-        this.totalNumberOfCompletedTasks += tasksCount;
-        this.totalNumberOfCompletedTasksPoint += point;
+        beginUpdate();
+        totalNumberOfCompletedTasks.add(tasksCount);
+        totalNumberOfCompletedTasksPoint.add(point);
+        updatesFinished.increment();
+    }
+
+    public void recordActivity(int point) {
+        activity.record(point);
+    }
+
+    public ActivityWindow.Totals getActivity(long windowMillis) {
+        return activity.totals(windowMillis);
+    }
+
+    public void restoreTotals(long completedTasks, long completedTasksPoint) {
+        beginUpdate();
+        totalNumberOfCompletedTasks.reset();
+        totalNumberOfCompletedTasks.add(completedTasks);
+        totalNumberOfCompletedTasksPoint.reset();
+        totalNumberOfCompletedTasksPoint.add(completedTasksPoint);
+        updatesFinished.increment();
+    }
+
+    // Grows on every change to the course aggregates, used to invalidate cached statistics.
+    public long getVersion() {
+        return updatesFinished.sum();
+    }
+
+    // Announces an update, backing off while a reader has paused updates. A paused reader never
+    // sees this update half-done: either it is counted in updatesStarted, or it sees the pause.
+    private void beginUpdate() {
+        while (true) {
+            updatesStarted.increment();
+            if (!updatesPaused) {
+                return;
+            }
+            updatesFinished.increment();
+            for (int spins = 0; updatesPaused; spins++) {
+                if (spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+    }
+
+    long getUpdatesStarted() {
+        return updatesStarted.sum();
+    }
+
+    long getUpdatesFinished() {
+        return updatesFinished.sum();
+    }
+
+    void setUpdatesPaused(boolean paused) {
+        updatesPaused = paused;
+    }
+
+    public int getOrdinal() {
+        return ordinal;
     }
 
     public String getName() {
@@ -76,11 +172,14 @@ public class Course {
     }
 
     public double getAveragePerAssignment() {
-        if(totalNumberOfCompletedTasks < 1) return 0;
-        return (double) totalNumberOfCompletedTasksPoint / totalNumberOfCompletedTasks;
+        long tasks = totalNumberOfCompletedTasks.sum();
+        if(tasks < 1) return 0;
+        return (double) totalNumberOfCompletedTasksPoint.sum() / tasks;
     }
 
     public void removeStudent(Student student) {
-        enrolledStudentsID.remove(student.getID());
+        beginUpdate();
+        enrolledStudents.remove(student.getSlot());
+        updatesFinished.increment();
     }
 }
@@ -0,0 +1,99 @@
+package tracker;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The courses of one tracker, numbered 0..n-1 in configuration order. Every per-course structure is an
+// array indexed by that ordinal; names are only hashed once, when a user types a course name.
+public class CourseCatalog {
+    private final List<Course> courses;
+    private final Map<String, Course> coursesByName;
+
+    public CourseCatalog(List<Course> courses) {
+        if (courses.isEmpty()) {
+            throw new IllegalArgumentException("A course catalog needs at least one course");
+        }
+        this.courses = List.copyOf(courses);
+        coursesByName = new HashMap<>();
+        for (int ordinal = 0; ordinal < this.courses.size(); ordinal++) {
+            Course course = this.courses.get(ordinal);
+            if (course.getOrdinal() != ordinal) {
+                throw new IllegalArgumentException("Course " + course.getName() + " has ordinal "
+                        + course.getOrdinal() + " at position " + ordinal);
+            }
+            if (coursesByName.putIfAbsent(foldCase(course.getName()), course) != null) {
+                throw new IllegalArgumentException("Duplicate course " + course.getName());
+            }
+        }
+    }
+
+    // A fresh set of the CoursesDataStore courses, so trackers never share course aggregates.
+    public static CourseCatalog defaults() {
+        List<Course> courses = new ArrayList<>();
+        for (CoursesDataStore course : CoursesDataStore.values()) {
+            courses.add(new Course(course.ordinal(), course.getName(), course.getTotalNumberOfPoints()));
+        }
+        return new CourseCatalog(courses);
+    }
+
+    // Reads one "name = total points" line per course; blank lines and lines starting with '#' are skipped.
+    public static CourseCatalog load(Path path) throws IOException {
+        List<Course> courses = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int separator = trimmed.lastIndexOf('=');
+            String name = separator < 0 ? "" : trimmed.substring(0, separator).trim();
+            int totalPoints;
+            try {
+                totalPoints = separator < 0 ? 0 : Integer.parseInt(trimmed.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                totalPoints = 0;
+            }
+            if (name.isEmpty() || totalPoints <= 0) {
+                throw new IOException(path + ":" + lineNumber + ": expected 'name = total points', got '" + line + "'");
+            }
+            courses.add(new Course(courses.size(), name, totalPoints));
+        }
+        try {
+            return new CourseCatalog(courses);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(path + ": " + e.getMessage(), e);
+        }
+    }
+
+    public List<Course> courses() {
+        return courses;
+    }
+
+    public int size() {
+        return courses.size();
+    }
+
+    public Course get(int ordinal) {
+        return courses.get(ordinal);
+    }
+
+    // Matches names the way String.equalsIgnoreCase does; returns null for unknown courses.
+    public Course find(String name) {
+        return coursesByName.get(foldCase(name));
+    }
+
+    private static String foldCase(String name) {
+        StringBuilder folded = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            folded.append(Character.toLowerCase(Character.toUpperCase(name.charAt(i))));
+        }
+        return folded.toString();
+    }
+}
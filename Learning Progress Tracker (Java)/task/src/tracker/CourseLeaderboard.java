@@ -0,0 +1,275 @@
+package tracker;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+// Students of one course ordered by points (descending), then by ID in String order.
+// A treap whose nodes are student slots: links live in paged int arrays and priorities are
+// derived from the slot, so updates are O(log n) and allocation-free once pages exist.
+// The ordering key is read from the PointsMatrix, so a slot must be removed before its
+// points change and added back afterwards. All access goes through the board's monitor;
+// visitors run while holding it and see one consistent ranking.
+public class CourseLeaderboard {
+    private static final int NIL = -1;
+
+    private final PointsMatrix points;
+    private final int course;
+    private int[][] left;
+    private int[][] right;
+    private int root;
+    private int size;
+
+    public CourseLeaderboard(PointsMatrix points, int course) {
+        this.points = points;
+        this.course = course;
+        left = new int[0][];
+        right = new int[0][];
+        root = NIL;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void add(int slot) {
+        ensureCapacity(slot);
+        setLeft(slot, NIL);
+        setRight(slot, NIL);
+        root = insert(root, slot);
+        size++;
+    }
+
+    public synchronized void remove(int slot) {
+        int before = size;
+        root = delete(root, slot);
+        if (size == before) {
+            throw new IllegalStateException("Slot " + slot + " is not ranked in course " + course);
+        }
+    }
+
+    // Replaces the contents with slots already in rank order, building the treap in O(n)
+    // with the usual stack-based Cartesian tree construction.
+    public synchronized void buildFromRanked(int[] slots, int count) {
+        if (size != 0) {
+            throw new IllegalStateException("Leaderboard of course " + course + " is not empty");
+        }
+        int[] stack = new int[64];
+        int depth = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            if (i > 0 && compare(slots[i - 1], slot) >= 0) {
+                throw new IllegalArgumentException("Slot " + slot + " is out of rank order");
+            }
+            ensureCapacity(slot);
+            setRight(slot, NIL);
+            int last = NIL;
+            while (depth > 0 && priority(stack[depth - 1]) < priority(slot)) {
+                last = stack[--depth];
+            }
+            setLeft(slot, last);
+            if (depth > 0) {
+                setRight(stack[depth - 1], slot);
+            }
+            stack = push(stack, depth++, slot);
+        }
+        root = depth > 0 ? stack[0] : NIL;
+        size = count;
+    }
+
+    // Replaces the contents with the given slots in any order. Sorting on packed (points, slot) keys
+    // and then fixing up String order of IDs within equal points beats n single adds by a wide margin.
+    public synchronized void rebuild(int[] slots, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) ~points.getPoints(slots[i], course) << 32) | slots[i];
+        }
+        Arrays.sort(keys);
+        int[] ranked = new int[count];
+        for (int i = 0; i < count; i++) {
+            ranked[i] = (int) keys[i];
+        }
+        // Runs of equal points are in numeric ID order, which matches String order except across digit counts.
+        int[] buffer = new int[count];
+        for (int from = 0, to; from < count; from = to) {
+            long pointsKey = keys[from] >> 32;
+            to = from + 1;
+            while (to < count && keys[to] >> 32 == pointsKey) {
+                to++;
+            }
+            mergeSort(ranked, buffer, from, to);
+        }
+        root = NIL;
+        size = 0;
+        buildFromRanked(ranked, count);
+    }
+
+    private void mergeSort(int[] slots, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(slots, buffer, from, middle);
+        mergeSort(slots, buffer, middle, to);
+        if (compare(slots[middle - 1], slots[middle]) < 0) {
+            return;
+        }
+        System.arraycopy(slots, from, buffer, from, to - from);
+        for (int i = from, a = from, b = middle; i < to; i++) {
+            slots[i] = b == to || (a < middle && compare(buffer[a], buffer[b]) < 0) ? buffer[a++] : buffer[b++];
+        }
+    }
+
+    // Visits slots in rank order until the visitor returns false.
+    public void forEach(IntPredicate visitor) {
+        forEachAfter(NIL, visitor);
+    }
+
+    // Visits slots ranked strictly after the given cursor slot; NIL starts from the top.
+    public synchronized void forEachAfter(int cursorSlot, IntPredicate visitor) {
+        int[] stack = new int[64];
+        int depth = 0;
+        int node = root;
+        if (cursorSlot != NIL) {
+            while (node != NIL) {
+                if (compare(cursorSlot, node) < 0) {
+                    stack = push(stack, depth++, node);
+                    node = left(node);
+                } else {
+                    node = right(node);
+                }
+            }
+        }
+        while (node != NIL || depth > 0) {
+            while (node != NIL) {
+                stack = push(stack, depth++, node);
+                node = left(node);
+            }
+            node = stack[--depth];
+            if (!visitor.test(node)) {
+                return;
+            }
+            node = right(node);
+        }
+    }
+
+    public synchronized int[] top(int limit) {
+        int[] slots = new int[Math.min(limit, size)];
+        int[] count = {0};
+        forEach(slot -> {
+            slots[count[0]++] = slot;
+            return count[0] < slots.length;
+        });
+        return slots;
+    }
+
+    int compare(int slotA, int slotB) {
+        int pointsA = points.getPoints(slotA, course);
+        int pointsB = points.getPoints(slotB, course);
+        if (pointsA != pointsB) {
+            return pointsA > pointsB ? -1 : 1;
+        }
+        return StudentIdAllocator.compareFormatted(StudentIdAllocator.idOf(slotA), StudentIdAllocator.idOf(slotB));
+    }
+
+    private int insert(int node, int slot) {
+        if (node == NIL) {
+            return slot;
+        }
+        if (compare(slot, node) < 0) {
+            setLeft(node, insert(left(node), slot));
+            if (priority(left(node)) > priority(node)) {
+                node = rotateRight(node);
+            }
+        } else {
+            setRight(node, insert(right(node), slot));
+            if (priority(right(node)) > priority(node)) {
+                node = rotateLeft(node);
+            }
+        }
+        return node;
+    }
+
+    private int delete(int node, int slot) {
+        if (node == NIL) {
+            return NIL;
+        }
+        if (node == slot) {
+            size--;
+            return merge(left(node), right(node));
+        }
+        if (compare(slot, node) < 0) {
+            setLeft(node, delete(left(node), slot));
+        } else {
+            setRight(node, delete(right(node), slot));
+        }
+        return node;
+    }
+
+    private int merge(int a, int b) {
+        if (a == NIL) return b;
+        if (b == NIL) return a;
+        if (priority(a) > priority(b)) {
+            setRight(a, merge(right(a), b));
+            return a;
+        }
+        setLeft(b, merge(a, left(b)));
+        return b;
+    }
+
+    private int rotateRight(int node) {
+        int pivot = left(node);
+        setLeft(node, right(pivot));
+        setRight(pivot, node);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        int pivot = right(node);
+        setRight(node, left(pivot));
+        setLeft(pivot, node);
+        return pivot;
+    }
+
+    private static int priority(int slot) {
+        int h = slot * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & Integer.MAX_VALUE;
+    }
+
+    private static int[] push(int[] stack, int depth, int node) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth] = node;
+        return stack;
+    }
+
+    private void ensureCapacity(int slot) {
+        int requiredPages = (slot >>> PointsMatrix.PAGE_SHIFT) + 1;
+        if (requiredPages > left.length) {
+            int pageCount = left.length;
+            int newPageCount = Math.max(requiredPages, pageCount * 2);
+            left = Arrays.copyOf(left, newPageCount);
+            right = Arrays.copyOf(right, newPageCount);
+            for (int page = pageCount; page < newPageCount; page++) {
+                left[page] = new int[PointsMatrix.PAGE_SIZE];
+                right[page] = new int[PointsMatrix.PAGE_SIZE];
+            }
+        }
+    }
+
+    private int left(int slot) {
+        return left[slot >>> PointsMatrix.PAGE_SHIFT][slot & PointsMatrix.PAGE_MASK];
+    }
+
+    private int right(int slot) {
+        return right[slot >>> PointsMatrix.PAGE_SHIFT][slot & PointsMatrix.PAGE_MASK];
+    }
+
+    private void setLeft(int slot, int child) {
+        left[slot >>> PointsMatrix.PAGE_SHIFT][slot & PointsMatrix.PAGE_MASK] = child;
+    }
+
+    private void setRight(int slot, int child) {
+        right[slot >>> PointsMatrix.PAGE_SHIFT][slot & PointsMatrix.PAGE_MASK] = child;
+    }
+}
@@ -0,0 +1,212 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Caches the statistics summary and recomputes it in a single pass over the courses,
+// only after one of their aggregates has changed.
+// Course aggregates are updated without locks, so a summary is first computed optimistically and kept
+// only if no course update started or was in flight meanwhile. After a few failed attempts the
+// courses' updates are paused for the duration of one pass.
+public class CourseStatistics {
+    private static final String NOT_AVAILABLE = "n/a";
+    private static final int OPTIMISTIC_ATTEMPTS = 4;
+
+    private final List<Course> courses;
+    private long cachedVersion = -1;
+    private Summary cachedSummary;
+
+    public CourseStatistics(List<Course> courses) {
+        this.courses = List.copyOf(courses);
+    }
+
+    public record Summary(String mostPopular, String leastPopular,
+                          String highestActivity, String lowestActivity,
+                          String easiestCourse, String hardestCourse) {
+    }
+
+    public record CourseActivity(String course, long submissions, long points) {
+    }
+
+    public record WindowSummary(String highestActivity, String lowestActivity, List<CourseActivity> ranking) {
+    }
+
+    // Activity over the last windowMillis from the courses' time buckets: highest and lowest by submissions as
+    // in the summary, and every course ranked by submissions, then points. It moves with the clock, so it is
+    // never cached; it reads a few hundred buckets at most.
+    public WindowSummary getWindowSummary(long windowMillis) {
+        List<CourseActivity> ranking = new ArrayList<>(courses.size());
+        long maxSubmissions = Long.MIN_VALUE;
+        long minSubmissions = Long.MAX_VALUE;
+        for (Course course : courses) {
+            ActivityWindow.Totals totals = course.getActivity(windowMillis);
+            ranking.add(new CourseActivity(course.getName(), totals.submissions(), totals.points()));
+            if (totals.submissions() > 0) {
+                maxSubmissions = Math.max(maxSubmissions, totals.submissions());
+                minSubmissions = Math.min(minSubmissions, totals.submissions());
+            }
+        }
+
+        StringBuilder highestActivity = new StringBuilder();
+        StringBuilder lowestActivity = new StringBuilder();
+        for (CourseActivity activity : ranking) {
+            if (activity.submissions() > 0) {
+                appendIf(highestActivity, activity.submissions() == maxSubmissions, activity.course());
+                appendIf(lowestActivity, activity.submissions() == minSubmissions, activity.course());
+            }
+        }
+        ranking.sort(Comparator.comparingLong(CourseActivity::submissions)
+                .thenComparingLong(CourseActivity::points).reversed());
+
+        String highest = orNotAvailable(highestActivity.toString());
+        return new WindowSummary(highest, distinctOrNotAvailable(lowestActivity.toString(), highest),
+                List.copyOf(ranking));
+    }
+
+    public synchronized Summary getSummary() {
+        if (!TrackerEvents.isEnabled()) {
+            return summarize(null);
+        }
+        TrackerEvents.StatisticsEvent event = new TrackerEvents.StatisticsEvent();
+        event.begin();
+        Summary summary = summarize(event);
+        event.courses = courses.size();
+        event.commit();
+        return summary;
+    }
+
+    private Summary summarize(TrackerEvents.StatisticsEvent event) {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long finished = updatesFinished();
+            Summary summary = cachedSummary != null && finished == cachedVersion
+                    ? cachedSummary : computeSummary(event);
+            if (event != null) {
+                event.attempts++;
+            }
+            if (updatesStarted() == finished) {
+                return cache(summary, finished);
+            }
+        }
+        if (event != null) {
+            event.updatesPaused = true;
+        }
+        for (Course course : courses) {
+            course.setUpdatesPaused(true);
+        }
+        try {
+            long finished;
+            do {
+                Thread.onSpinWait();
+                finished = updatesFinished();
+            } while (updatesStarted() != finished);
+            return cache(finished == cachedVersion && cachedSummary != null ? cachedSummary : computeSummary(event),
+                    finished);
+        } finally {
+            for (Course course : courses) {
+                course.setUpdatesPaused(false);
+            }
+        }
+    }
+
+    private Summary cache(Summary summary, long version) {
+        cachedSummary = summary;
+        cachedVersion = version;
+        return summary;
+    }
+
+    // Both counters only grow and started is never behind finished, so when finished (read first)
+    // equals started (read last), no update was in progress or began in between.
+    private long updatesFinished() {
+        long total = 0;
+        for (Course course : courses) {
+            total += course.getUpdatesFinished();
+        }
+        return total;
+    }
+
+    private long updatesStarted() {
+        long total = 0;
+        for (Course course : courses) {
+            total += course.getUpdatesStarted();
+        }
+        return total;
+    }
+
+    private Summary computeSummary(TrackerEvents.StatisticsEvent event) {
+        if (event != null) {
+            event.recomputed = true;
+        }
+        int size = courses.size();
+        int[] enrolled = new int[size];
+        long[] tasks = new long[size];
+        double[] averages = new double[size];
+        int maxEnrolled = Integer.MIN_VALUE;
+        int minEnrolled = Integer.MAX_VALUE;
+        long maxTasks = Long.MIN_VALUE;
+        long minTasks = Long.MAX_VALUE;
+        double maxAverage = Double.NEGATIVE_INFINITY;
+        double minAverage = Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < size; i++) {
+            Course course = courses.get(i);
+            enrolled[i] = course.getTotalEnrolledStudents();
+            tasks[i] = course.getTotalNumberOfCompletedTasks();
+            averages[i] = course.getAveragePerAssignment();
+            maxEnrolled = Math.max(maxEnrolled, enrolled[i]);
+            minEnrolled = Math.min(minEnrolled, enrolled[i]);
+            maxTasks = Math.max(maxTasks, tasks[i]);
+            minTasks = Math.min(minTasks, tasks[i]);
+            maxAverage = Math.max(maxAverage, averages[i]);
+            minAverage = Math.min(minAverage, averages[i]);
+        }
+
+        StringBuilder mostPopular = new StringBuilder();
+        StringBuilder leastPopular = new StringBuilder();
+        StringBuilder highestActivity = new StringBuilder();
+        StringBuilder lowestActivity = new StringBuilder();
+        StringBuilder easiestCourse = new StringBuilder();
+        StringBuilder hardestCourse = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+            String name = courses.get(i).getName();
+            if (enrolled[i] > 0) {
+                appendIf(mostPopular, enrolled[i] == maxEnrolled, name);
+                appendIf(leastPopular, enrolled[i] == minEnrolled, name);
+            }
+            if (tasks[i] > 0) {
+                appendIf(highestActivity, tasks[i] == maxTasks, name);
+                appendIf(lowestActivity, tasks[i] == minTasks, name);
+            }
+            if (averages[i] > 0) {
+                appendIf(easiestCourse, averages[i] == maxAverage, name);
+                appendIf(hardestCourse, averages[i] == minAverage, name);
+            }
+        }
+
+        String most = orNotAvailable(mostPopular.toString());
+        String highest = orNotAvailable(highestActivity.toString());
+        String easiest = orNotAvailable(easiestCourse.toString());
+        return new Summary(
+                most, distinctOrNotAvailable(leastPopular.toString(), most),
+                highest, distinctOrNotAvailable(lowestActivity.toString(), highest),
+                easiest, distinctOrNotAvailable(hardestCourse.toString(), easiest));
+    }
+
+    private static void appendIf(StringBuilder names, boolean condition, String name) {
+        if (condition) {
+            if (!names.isEmpty()) {
+                names.append(", ");
+            }
+            names.append(name);
+        }
+    }
+
+    private static String orNotAvailable(String names) {
+        return names.isEmpty() ? NOT_AVAILABLE : names;
+    }
+
+    private static String distinctOrNotAvailable(String names, String opposite) {
+        return names.isEmpty() || names.equals(opposite) ? NOT_AVAILABLE : names;
+    }
+}
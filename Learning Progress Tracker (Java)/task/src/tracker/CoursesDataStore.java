@@ -2,19 +2,26 @@ package tracker;
 
 import static tracker.Course.*;
 
+// The courses a tracker offers when no catalog file is configured, in ordinal order.
 public enum CoursesDataStore {
-    JAVA(new Course("Java", TOTAL_POINTS_JAVA)),
-    DSA(new Course("DSA", TOTAL_POINTS_DSA)),
-    DATABASE(new Course("Databases", TOTAL_POINTS_DATABASE)),
-    SPRING(new Course("Spring", TOTAL_POINTS_SPRING));
+    JAVA("Java", TOTAL_POINTS_JAVA),
+    DSA("DSA", TOTAL_POINTS_DSA),
+    DATABASE("Databases", TOTAL_POINTS_DATABASE),
+    SPRING("Spring", TOTAL_POINTS_SPRING);
 
-    private final Course instance;
+    private final String name;
+    private final int totalNumberOfPoints;
 
-    CoursesDataStore(Course instance) {
-        this.instance = instance;
+    CoursesDataStore(String name, int totalNumberOfPoints) {
+        this.name = name;
+        this.totalNumberOfPoints = totalNumberOfPoints;
     }
 
-    public Course getInstance() {
-        return instance;
+    public String getName() {
+        return name;
+    }
+
+    public int getTotalNumberOfPoints() {
+        return totalNumberOfPoints;
     }
 }
@@ -0,0 +1,125 @@
+package tracker;
+
+// Single-pass checks with exactly the acceptance rules of the original patterns:
+//   name:  ^(?<!['-])[a-zA-Z][a-zA-Z' -]+(?<!['-])$  and  ^(?!.*['-]{2})[A-Za-z' -]+$, at least 2 chars
+//   email: ^[\w.]+@\w+\.\w+$
+// The range variants work on a slice of the input line, so 'add students' validates without splitting it.
+public final class CredentialValidator {
+    public static final String INCORRECT_FIRST_NAME = "Incorrect first name.";
+    public static final String INCORRECT_LAST_NAME = "Incorrect last name.";
+    public static final String INCORRECT_EMAIL = "Incorrect email.";
+
+    private CredentialValidator() {
+    }
+
+    // Returns the message 'add students' prints for invalid credentials, or null when they are accepted.
+    public static String validate(CharSequence firstName, CharSequence lastName, CharSequence email) {
+        if (!isValidName(firstName)) {
+            return INCORRECT_FIRST_NAME;
+        } else if (!isValidName(lastName)) {
+            return INCORRECT_LAST_NAME;
+        } else if (!isValidEmail(email)) {
+            return INCORRECT_EMAIL;
+        }
+        return null;
+    }
+
+    public static boolean isValidName(CharSequence text) {
+        return isValidName(text, 0, text.length(), false);
+    }
+
+    // With collapseWhitespace, every run of \s characters counts as one ' ', the way the words of a
+    // line are joined into a last name.
+    public static boolean isValidName(CharSequence text, int start, int end, boolean collapseWhitespace) {
+        int length = 0;
+        char previous = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (collapseWhitespace && isWhitespace(c)) {
+                if (previous == ' ') {
+                    continue;
+                }
+                c = ' ';
+            }
+            if (length == 0) {
+                if (!isLetter(c)) {
+                    return false;
+                }
+            } else if (isSeparator(c)) {
+                if (isSeparator(previous)) {
+                    return false;
+                }
+            } else if (c != ' ' && !isLetter(c)) {
+                return false;
+            }
+            previous = c;
+            length++;
+        }
+        return length >= 2 && !isSeparator(previous);
+    }
+
+    public static boolean isValidEmail(CharSequence text) {
+        return isValidEmail(text, 0, text.length());
+    }
+
+    public static boolean isValidEmail(CharSequence text, int start, int end) {
+        final int local = 0;
+        final int domain = 1;
+        final int topLevel = 2;
+        int state = local;
+        int partLength = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isWordChar(c)) {
+                partLength++;
+            } else if (c == '.' && state == local) {
+                partLength++;
+            } else if (c == '@' && state == local && partLength > 0) {
+                state = domain;
+                partLength = 0;
+            } else if (c == '.' && state == domain && partLength > 0) {
+                state = topLevel;
+                partLength = 0;
+            } else {
+                return false;
+            }
+        }
+        return state == topLevel && partLength > 0;
+    }
+
+    // Characters matched by \s.
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // The last name 'add students' stores for a slice of words: runs of \s become a single space.
+    public static String joinWords(CharSequence text, int start, int end) {
+        StringBuilder joined = null;
+        boolean previousSpace = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            boolean space = isWhitespace(c);
+            if (joined == null && space && (previousSpace || c != ' ')) {
+                joined = new StringBuilder(end - start).append(text, start, previousSpace ? i - 1 : i);
+                previousSpace = false;
+            }
+            if (joined != null && !(space && previousSpace)) {
+                joined.append(space ? ' ' : c);
+            }
+            previousSpace = space;
+        }
+        return joined == null ? text.subSequence(start, end).toString() : joined.toString();
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '\'' || c == '-';
+    }
+
+    private static boolean isWordChar(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9') || c == '_';
+    }
+}
@@ -0,0 +1,34 @@
+package tracker;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Writes each batch to its own spool file for an external mailer to pick up.
+// Files are written under a temporary name and moved into place, so readers never see partial batches.
+public class FileSpoolTransport implements Transport {
+    private final Path directory;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public FileSpoolTransport(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public void send(List<Notification> batch) throws IOException {
+        StringBuilder content = new StringBuilder(batch.size() * 128);
+        for (Notification notification : batch) {
+            content.append("To: ").append(notification.to()).append('\n')
+                    .append("Re: ").append(notification.subject()).append('\n')
+                    .append(notification.body()).append("\n\n");
+        }
+        String name = String.format("batch-%d-%06d", System.currentTimeMillis(), sequence.incrementAndGet());
+        Path temporary = directory.resolve(name + ".tmp");
+        Files.writeString(temporary, content, StandardCharsets.UTF_8);
+        Files.move(temporary, directory.resolve(name + ".spool"), StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,355 @@
+package tracker;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+// JSON over HTTP for dashboards and automation, on the JDK's built-in server:
+//   POST /students                       {"firstName": .., "lastName": .., "email": ..}  -> 201 {"id": ..}
+//   GET  /students/{id}/points                                                        -> {"id": .., "points": {..}}
+//   POST /students/{id}/points           {"points": [p1, .., pN]}, one value per course
+//   GET  /statistics                                                                  -> the 'statistics' summary
+//   GET  /courses/{name}/leaderboard[?limit=N][&after=ID]                             -> ranked students
+// Writes go through the Tracker, so they are validated and journaled exactly like console input.
+// Responses are streamed; a leaderboard is copied out a page at a time, never held in memory whole.
+public class HttpApi implements AutoCloseable {
+    private static final int MAX_BODY_SIZE = 64 * 1024;
+    private static final int LEADERBOARD_PAGE_SIZE = 1024;
+
+    static {
+        // Streamed responses go out as headers plus chunks; with Nagle's algorithm on, the last small chunk
+        // waits for the client's delayed ACK, which adds ~40 ms to every request. The JDK server reads this
+        // property once, when it first starts, so it has to be set before any server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final Tracker tracker;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public HttpApi(Tracker tracker, InetSocketAddress address) throws IOException {
+        this(tracker, address, newRequestExecutor());
+    }
+
+    public HttpApi(Tracker tracker, InetSocketAddress address, ExecutorService executor) throws IOException {
+        this.tracker = tracker;
+        this.executor = executor;
+        server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/students", exchange -> handle(exchange, this::students));
+        server.createContext("/statistics", exchange -> handle(exchange, this::statistics));
+        server.createContext("/courses", exchange -> handle(exchange, this::courses));
+    }
+
+    // A virtual thread per request where the runtime has them (Java 21+), otherwise a cached pool of
+    // platform threads. Looked up reflectively so the tracker still builds and runs on Java 17.
+    public static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    public HttpApi start() {
+        server.start();
+        return this;
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange, String[] path) throws IOException;
+    }
+
+    // Failures that map to a status code and an {"error": ..} body.
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+    }
+
+    private static void handle(HttpExchange exchange, Handler handler) {
+        try {
+            String[] path = exchange.getRequestURI().getRawPath().substring(1).split("/");
+            for (int i = 0; i < path.length; i++) {
+                path[i] = URLDecoder.decode(path[i], StandardCharsets.UTF_8);
+            }
+            handler.handle(exchange, path);
+        } catch (ApiException e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException e) {
+            // The client went away; there is nobody left to answer.
+        } catch (RuntimeException e) {
+            System.err.println("HTTP request failed: " + e);
+            sendError(exchange, 500, "Internal error.");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void students(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 1) {
+            requireMethod(exchange, "POST");
+            registerStudent(exchange);
+        } else if (path.length == 3 && path[2].equals("points")) {
+            Student student = tracker.getStudents().findById(path[1]);
+            if (student == null) {
+                throw new ApiException(404, "No student is found for id=" + path[1] + ".");
+            }
+            if (exchange.getRequestMethod().equals("POST")) {
+                addPoints(exchange, student);
+            } else {
+                requireMethod(exchange, "GET");
+            }
+            writePoints(exchange, student);
+        } else {
+            throw new ApiException(404, "Not found.");
+        }
+    }
+
+    private void registerStudent(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readObject(exchange);
+        String firstName = stringMember(body, "firstName");
+        String lastName = stringMember(body, "lastName");
+        String email = stringMember(body, "email");
+        String error = CredentialValidator.validate(firstName, lastName, email);
+        if (error != null) {
+            throw new ApiException(400, error);
+        }
+        if (tracker.getStudents().containsEmail(email)) {
+            throw new ApiException(409, "This email is already taken");
+        }
+        Student student = tracker.registerStudent(firstName, lastName, email);
+        if (student == null) {
+            throw new ApiException(409, "This email is already taken");
+        }
+        JsonWriter json = startJson(exchange, 201);
+        json.beginObject().name("id").value(student.getNumericID()).endObject().flush();
+    }
+
+    private void addPoints(HttpExchange exchange, Student student) throws IOException {
+        Object member = readObject(exchange).get("points");
+        int courses = tracker.getCatalog().size();
+        if (!(member instanceof List<?> values) || values.size() != courses) {
+            throw new ApiException(400, "Incorrect points format.");
+        }
+        int[] points = new int[courses];
+        for (int i = 0; i < courses; i++) {
+            if (!(values.get(i) instanceof Long value) || value < 0 || value > Integer.MAX_VALUE) {
+                throw new ApiException(400, "Incorrect points format.");
+            }
+            points[i] = (int) (long) value;
+        }
+        tracker.addPoints(student, points);
+    }
+
+    // Same courses as 'find': a course drops out once the student has been notified of completing it.
+    private void writePoints(HttpExchange exchange, Student student) throws IOException {
+        PointsMatrix matrix = tracker.getStudents().getPoints();
+        List<Course> courses = matrix.getCourses();
+        int[] points = new int[courses.size()];
+        boolean[] removed = new boolean[courses.size()];
+        ReentrantLock lock = student.lock();
+        try {
+            for (int i = 0; i < points.length; i++) {
+                removed[i] = matrix.isRemoved(student.getSlot(), i);
+                points[i] = matrix.getPoints(student.getSlot(), i);
+            }
+        } finally {
+            lock.unlock();
+        }
+        JsonWriter json = startJson(exchange, 200);
+        json.beginObject().name("id").value(student.getNumericID()).name("points").beginObject();
+        for (int i = 0; i < points.length; i++) {
+            if (!removed[i]) {
+                json.name(courses.get(i).getName()).value(points[i]);
+            }
+        }
+        json.endObject().endObject().flush();
+    }
+
+    private void statistics(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length != 1) {
+            throw new ApiException(404, "Not found.");
+        }
+        requireMethod(exchange, "GET");
+        CourseStatistics.Summary summary = tracker.getStatistics().getSummary();
+        JsonWriter json = startJson(exchange, 200);
+        json.beginObject()
+                .name("mostPopular").value(summary.mostPopular())
+                .name("leastPopular").value(summary.leastPopular())
+                .name("highestActivity").value(summary.highestActivity())
+                .name("lowestActivity").value(summary.lowestActivity())
+                .name("easiestCourse").value(summary.easiestCourse())
+                .name("hardestCourse").value(summary.hardestCourse())
+                .endObject().flush();
+    }
+
+    private void courses(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length != 3 || !path[2].equals("leaderboard")) {
+            throw new ApiException(404, "Not found.");
+        }
+        requireMethod(exchange, "GET");
+        Course course = tracker.getCatalog().find(path[1]);
+        if (course == null) {
+            throw new ApiException(404, "Unknown course.");
+        }
+        Map<String, String> query = query(exchange);
+        long limit = query.containsKey("limit") ? parseCount(query.get("limit")) : Long.MAX_VALUE;
+        int cursor = -1;
+        if (query.containsKey("after")) {
+            Student after = tracker.getStudents().findById(query.get("after"));
+            if (after == null) {
+                throw new ApiException(400, "No student is found for id=" + query.get("after") + ".");
+            }
+            cursor = after.getSlot();
+        }
+
+        StudentRegistry students = tracker.getStudents();
+        PointsMatrix matrix = students.getPoints();
+        JsonWriter json = startJson(exchange, 200);
+        json.beginObject().name("course").value(course.getName()).name("students").beginArray();
+        int[] slots = new int[LEADERBOARD_PAGE_SIZE];
+        int[] points = new int[LEADERBOARD_PAGE_SIZE];
+        long written = 0;
+        while (written < limit) {
+            int pageSize = (int) Math.min(LEADERBOARD_PAGE_SIZE, limit - written);
+            int[] count = {0};
+            // The board is locked only while a page is copied; the page is written after releasing it.
+            students.forEachRankedAfter(course, cursor, slot -> {
+                slots[count[0]] = slot;
+                points[count[0]] = matrix.getPoints(slot, course.getOrdinal());
+                return ++count[0] < pageSize;
+            });
+            for (int i = 0; i < count[0]; i++) {
+                json.beginObject()
+                        .name("id").value(StudentIdAllocator.idOf(slots[i]))
+                        .name("points").value(points[i])
+                        .name("completed").value(Student.completionPercentage(points[i], course))
+                        .endObject();
+            }
+            written += count[0];
+            if (count[0] < pageSize) {
+                break;
+            }
+            cursor = slots[count[0] - 1];
+        }
+        json.endArray().endObject().flush();
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new ApiException(405, "Method not allowed.");
+        }
+    }
+
+    private static Map<String, Object> readObject(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY_SIZE + 1);
+        }
+        if (body.length > MAX_BODY_SIZE) {
+            throw new ApiException(413, "Request body is too large.");
+        }
+        Object value = JsonParser.parse(new String(body, StandardCharsets.UTF_8));
+        if (!(value instanceof Map<?, ?> object)) {
+            throw new ApiException(400, "Expected a JSON object.");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> members = (Map<String, Object>) object;
+        return members;
+    }
+
+    private static String stringMember(Map<String, Object> object, String name) {
+        if (!(object.get(name) instanceof String value)) {
+            throw new ApiException(400, "Missing string member '" + name + "'.");
+        }
+        return value;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        String raw = exchange.getRequestURI().getRawQuery();
+        Map<String, String> query = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String parameter : raw.split("&")) {
+            int equals = parameter.indexOf('=');
+            String name = equals < 0 ? parameter : parameter.substring(0, equals);
+            String value = equals < 0 ? "" : parameter.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static long parseCount(String text) {
+        try {
+            long count = Long.parseLong(text);
+            if (count >= 0) {
+                return count;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below.
+        }
+        throw new ApiException(400, "Incorrect limit '" + text + "'.");
+    }
+
+    // Sends the headers for a streamed (chunked) JSON body.
+    private static JsonWriter startJson(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, 0);
+        return new JsonWriter(new BufferedOutputSink(exchange.getResponseBody(), 16 * 1024));
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            if (exchange.getResponseCode() != -1) {
+                // Headers are already out; all that is left is to cut the response short.
+                return;
+            }
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            new JsonWriter(new BufferedOutputSink(body, 256)).beginObject().name("error").value(message).endObject()
+                    .flush();
+            byte[] bytes = body.toByteArray();
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException ignored) {
+            // The client went away.
+        }
+    }
+}
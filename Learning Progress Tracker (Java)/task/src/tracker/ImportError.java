@@ -0,0 +1,5 @@
+package tracker;
+
+// A rejected line of a bulk import, numbered from 1, with the message the interactive command would print.
+public record ImportError(long line, String message) {
+}
@@ -0,0 +1,197 @@
+package tracker;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A small recursive-descent parser for request bodies. Objects become LinkedHashMaps, arrays Lists,
+// integers Longs, other numbers Doubles. Malformed input is reported as an IllegalArgumentException.
+public final class JsonParser {
+    private static final int MAX_DEPTH = 32;
+
+    private final String text;
+    private int position;
+
+    private JsonParser(String text) {
+        this.text = text;
+    }
+
+    public static Object parse(String text) {
+        JsonParser parser = new JsonParser(text);
+        Object value = parser.value(0);
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw parser.error("Unexpected data after the JSON value");
+        }
+        return value;
+    }
+
+    private Object value(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw error("JSON is nested too deeply");
+        }
+        skipWhitespace();
+        if (position == text.length()) {
+            throw error("Unexpected end of JSON");
+        }
+        char c = text.charAt(position);
+        if (c == '{') {
+            return object(depth);
+        } else if (c == '[') {
+            return array(depth);
+        } else if (c == '"') {
+            return string();
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            return number();
+        } else if (text.startsWith("true", position)) {
+            position += 4;
+            return Boolean.TRUE;
+        } else if (text.startsWith("false", position)) {
+            position += 5;
+            return Boolean.FALSE;
+        } else if (text.startsWith("null", position)) {
+            position += 4;
+            return null;
+        }
+        throw error("Unexpected character '" + c + "'");
+    }
+
+    private Map<String, Object> object(int depth) {
+        Map<String, Object> object = new LinkedHashMap<>();
+        position++;
+        skipWhitespace();
+        if (consume('}')) {
+            return object;
+        }
+        do {
+            skipWhitespace();
+            if (position == text.length() || text.charAt(position) != '"') {
+                throw error("Expected a member name");
+            }
+            String name = string();
+            skipWhitespace();
+            expect(':');
+            object.put(name, value(depth + 1));
+            skipWhitespace();
+        } while (consume(','));
+        expect('}');
+        return object;
+    }
+
+    private List<Object> array(int depth) {
+        List<Object> array = new ArrayList<>();
+        position++;
+        skipWhitespace();
+        if (consume(']')) {
+            return array;
+        }
+        do {
+            array.add(value(depth + 1));
+            skipWhitespace();
+        } while (consume(','));
+        expect(']');
+        return array;
+    }
+
+    private String string() {
+        position++;
+        StringBuilder value = null;
+        int plainFrom = position;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '"') {
+                String result = value == null ? text.substring(plainFrom, position)
+                        : value.append(text, plainFrom, position).toString();
+                position++;
+                return result;
+            } else if (c < 0x20) {
+                throw error("Control character in a string");
+            } else if (c != '\\') {
+                position++;
+                continue;
+            }
+            if (value == null) {
+                value = new StringBuilder();
+            }
+            value.append(text, plainFrom, position);
+            if (++position == text.length()) {
+                break;
+            }
+            char escaped = text.charAt(position++);
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (position + 4 > text.length()) {
+                        throw error("Incomplete unicode escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text, position, position + 4, 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    position += 4;
+                }
+                default -> throw error("Invalid escape '\\" + escaped + "'");
+            }
+            plainFrom = position;
+        }
+        throw error("Unterminated string");
+    }
+
+    private Object number() {
+        int start = position;
+        boolean integer = true;
+        if (text.charAt(position) == '-') {
+            position++;
+        }
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '.' || c == 'e' || c == 'E' || c == '+' || (c == '-' && position > start)) {
+                integer = false;
+            } else if (c < '0' || c > '9') {
+                break;
+            }
+            position++;
+        }
+        String number = text.substring(start, position);
+        try {
+            return integer ? (Object) Long.parseLong(number) : (Object) Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + number + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private boolean consume(char expected) {
+        if (position < text.length() && text.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (!consume(expected)) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + position);
+    }
+}
@@ -0,0 +1,129 @@
+package tracker;
+
+import java.util.Arrays;
+
+// Writes JSON straight into an OutputSink as values are produced, so large arrays never sit in memory.
+// Commas are placed automatically; nesting is tracked in a small stack of "has elements" flags.
+public class JsonWriter {
+    private final OutputSink out;
+    private boolean[] hasElements = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(OutputSink out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        out.append('{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        depth--;
+        out.append('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        out.append('[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        depth--;
+        out.append(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        beforeValue();
+        string(name);
+        out.append(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            out.append("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        out.append(value);
+        return this;
+    }
+
+    public JsonWriter value(double value) {
+        beforeValue();
+        out.append(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        out.append(value ? "true" : "false");
+        return this;
+    }
+
+    public void flush() {
+        out.flush();
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (hasElements[depth - 1]) {
+                out.append(',');
+            }
+            hasElements[depth - 1] = true;
+        }
+    }
+
+    private void push() {
+        if (depth == hasElements.length) {
+            hasElements = Arrays.copyOf(hasElements, depth * 2);
+        }
+        hasElements[depth++] = false;
+    }
+
+    private void string(String text) {
+        out.append('"');
+        int length = text.length();
+        int plainFrom = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            out.append(text.subSequence(plainFrom, i));
+            plainFrom = i + 1;
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    out.append("\\u00");
+                    out.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                }
+            }
+        }
+        out.append(plainFrom == 0 ? text : text.subSequence(plainFrom, length));
+        out.append('"');
+    }
+}
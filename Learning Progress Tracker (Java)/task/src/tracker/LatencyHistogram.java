@@ -0,0 +1,104 @@
+package tracker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Latencies in nanoseconds, counted in log-linear buckets the way HdrHistogram lays them out: values below
+// 2^SUB_BUCKET_BITS get a bucket each, every power of two above that is split into 2^(SUB_BUCKET_BITS-1)
+// equal buckets. Reported values are within 1/64 (about 1.6%) of the recorded ones.
+// Recording is two atomic additions and never blocks, so any number of threads can share one histogram; the
+// count is summed from the buckets when read.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+    // About 4.9 hours; longer latencies are counted as this.
+    private static final long MAX_TRACKABLE_NANOS = (1L << 44) - 1;
+    private static final int BUCKET_COUNT = bucketOf(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE_NANOS));
+        buckets.incrementAndGet(bucketOf(value));
+        totalNanos.addAndGet(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        long recorded = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            recorded += buckets.get(i);
+        }
+        return recorded;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long recorded = getCount();
+        return recorded == 0 ? 0 : (double) totalNanos.get() / recorded;
+    }
+
+    // The smallest value that at least the given percentage of recordings do not exceed, as the upper end
+    // of its bucket (never above the maximum seen). Returns 0 for an empty histogram.
+    public long getPercentileNanos(double percentile) {
+        long recorded = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            recorded += counts[i];
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    // Adds the other histogram's recordings to this one.
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucket = other.buckets.get(i);
+            if (bucket != 0) {
+                buckets.addAndGet(i, bucket);
+            }
+        }
+        totalNanos.addAndGet(other.totalNanos.get());
+        long otherMax = other.maxNanos.get();
+        long max = maxNanos.get();
+        while (otherMax > max && !maxNanos.compareAndSet(max, otherMax)) {
+            max = maxNanos.get();
+        }
+    }
+
+    static int bucketOf(long value) {
+        if (value < 2 * HALF_SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < 2 * HALF_SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / HALF_SUB_BUCKETS - 1;
+        long top = bucket - (long) shift * HALF_SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
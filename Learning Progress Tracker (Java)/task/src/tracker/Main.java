@@ -1,8 +1,138 @@
 package tracker;
 
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Locale;
+
 public class Main {
-    public static void main(String[] args) {
-        Tracker tracker = new Tracker();
-        tracker.start();
+    public static void main(String[] args) throws IOException, ParseException {
+        OutputSink out = new BufferedOutputSink(System.out);
+        NotificationDispatcher notifications = NotificationDispatcher.synchronous(new ConsoleTransport(out));
+        boolean spooledNotifications = false;
+        Path journalPath = null;
+        Path snapshotPath = null;
+        Path batchPath = null;
+        Path importDirectory = null;
+        CourseCatalog catalog = CourseCatalog.defaults();
+        CommandJournal.FsyncPolicy fsyncPolicy = CommandJournal.FsyncPolicy.GROUP;
+        long groupCommitMillis = 10;
+        int serverPort = -1;
+        int httpPort = -1;
+        int serverThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+        int serverWorkers = TrackerServer.DEFAULT_WORKER_THREADS;
+        Path recordingPath = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--notify-spool") && i + 1 < args.length) {
+                notifications = NotificationDispatcher.asynchronous(
+                        new FileSpoolTransport(Path.of(args[++i])), Runtime.getRuntime().availableProcessors());
+                spooledNotifications = true;
+            } else if (args[i].equals("--journal") && i + 1 < args.length) {
+                journalPath = Path.of(args[++i]);
+            } else if (args[i].equals("--snapshot") && i + 1 < args.length) {
+                snapshotPath = Path.of(args[++i]);
+            } else if (args[i].equals("--fsync") && i + 1 < args.length) {
+                fsyncPolicy = CommandJournal.FsyncPolicy.valueOf(args[++i].toUpperCase(Locale.ROOT));
+            } else if (args[i].equals("--courses") && i + 1 < args.length) {
+                catalog = CourseCatalog.load(Path.of(args[++i]));
+            } else if (args[i].equals("--import-dir") && i + 1 < args.length) {
+                importDirectory = Path.of(args[++i]);
+            } else if (args[i].equals("--batch") && i + 1 < args.length) {
+                batchPath = Path.of(args[++i]);
+            } else if (args[i].equals("--group-commit-ms") && i + 1 < args.length) {
+                groupCommitMillis = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--server") && i + 1 < args.length) {
+                serverPort = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--http") && i + 1 < args.length) {
+                httpPort = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--server-threads") && i + 1 < args.length) {
+                serverThreads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--server-workers") && i + 1 < args.length) {
+                serverWorkers = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--jfr-events")) {
+                TrackerEvents.setEnabled(true);
+            } else if (args[i].equals("--jfr") && i + 1 < args.length) {
+                TrackerEvents.setEnabled(true);
+                recordingPath = Path.of(args[++i]);
+            }
+        }
+        // --jfr records the tracker's events together with the JDK's default set (GC, I/O, locks) and writes
+        // the recording when the tracker stops, or when the JVM exits if it never does.
+        Recording recording = null;
+        if (recordingPath != null) {
+            recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("tracker");
+            recording.setDestination(recordingPath);
+            recording.setDumpOnExit(true);
+            recording.start();
+        }
+        CommandSource in = batchPath == null
+                ? CommandSource.forStandardInput()
+                : new ChannelCommandSource(FileChannel.open(batchPath));
+        Tracker tracker = new Tracker(in, out, notifications, catalog);
+        tracker.getMetrics().registerMBean();
+        if (snapshotPath != null) {
+            tracker.openSnapshot(snapshotPath);
+        }
+        // Confines imports to this directory; server sessions cannot import at all without one.
+        if (importDirectory != null) {
+            tracker.setImportDirectory(importDirectory);
+        }
+        if (journalPath != null) {
+            tracker.openJournal(journalPath, fsyncPolicy, groupCommitMillis);
+        }
+        // The HTTP API runs alongside whichever front end owns the main thread and stops with it.
+        HttpApi api = null;
+        if (httpPort >= 0) {
+            api = new HttpApi(tracker, new InetSocketAddress(InetAddress.getLoopbackAddress(), httpPort)).start();
+            System.err.println("Tracker HTTP API is listening on " + api.getAddress());
+        }
+        try {
+            if (serverPort >= 0) {
+                serve(tracker, serverPort, serverThreads, serverWorkers, spooledNotifications ? notifications : null);
+            } else if (batchPath == null) {
+                tracker.start();
+            } else {
+                tracker.runBatch().printTo(new BufferedOutputSink(System.err));
+            }
+        } finally {
+            if (api != null) {
+                api.close();
+            }
+            if (recording != null) {
+                recording.stop();
+                recording.close();
+            }
+        }
+    }
+
+    // Serves on the loopback interface until the process is stopped. Without a spool, each session prints the
+    // notifications it sends into its own connection, as the console does.
+    private static void serve(Tracker tracker, int port, int threads, int workers, NotificationDispatcher shared)
+            throws IOException {
+        TrackerServer server = new TrackerServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                threads, workers, TrackerServer.DEFAULT_MAX_PENDING_OUTPUT, sessionOut -> tracker.session(sessionOut, shared != null ? shared
+                        : NotificationDispatcher.synchronous(new ConsoleTransport(sessionOut))));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                System.err.println("Cannot close the server: " + e.getMessage());
+            }
+            tracker.shutdown();
+        }));
+        server.start();
+        System.err.println("Tracker server is listening on " + server.getAddress());
+        try {
+            server.awaitTermination();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
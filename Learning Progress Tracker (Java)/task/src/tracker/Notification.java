@@ -0,0 +1,11 @@
+package tracker;
+
+public record Notification(String to, String subject, String body, long createdNanos) {
+
+    public static Notification courseCompleted(Student student, Course course) {
+        return new Notification(student.getEmail(), "Your Learning Progress",
+                "Hello, " + student.getFirstName() + " " + student.getLastName()
+                        + "! You have accomplished our " + course.getName() + " course!",
+                System.nanoTime());
+    }
+}
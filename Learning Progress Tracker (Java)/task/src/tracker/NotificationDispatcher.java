@@ -0,0 +1,172 @@
+package tracker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Hands notifications to a Transport in batches on background workers, retrying failed
+// batches with exponential backoff. A dispatcher without workers delivers on the caller's
+// thread, which keeps console output in order with the rest of the command's output.
+public class NotificationDispatcher implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 50;
+
+    private final Transport transport;
+    private final BlockingQueue<Notification> queue;
+    private final List<Thread> workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+
+    public NotificationDispatcher(Transport transport, int workerCount, int queueCapacity, int batchSize,
+                                  int maxAttempts, long initialBackoffMillis) {
+        this.transport = transport;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "notification-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    public static NotificationDispatcher synchronous(Transport transport) {
+        return new NotificationDispatcher(transport, 0, 1, 1, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MILLIS);
+    }
+
+    public static NotificationDispatcher asynchronous(Transport transport, int workerCount) {
+        return new NotificationDispatcher(transport, workerCount, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE,
+                DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MILLIS);
+    }
+
+    // Blocks while the queue is full, so a slow transport applies back-pressure instead of growing memory.
+    // The notification counts as in flight before closed is checked, and close sets closed before waiting
+    // for nothing to be in flight: either this sees the close and rejects, or close waits for its delivery.
+    public void submit(Notification notification) {
+        inFlight.incrementAndGet();
+        if (closed) {
+            inFlight.decrementAndGet();
+            throw new IllegalStateException("Notification dispatcher is closed");
+        }
+        submitted.increment();
+        if (workers.isEmpty()) {
+            try {
+                deliver(List.of(notification));
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return;
+        }
+        try {
+            queue.put(notification);
+        } catch (InterruptedException e) {
+            inFlight.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a notification", e);
+        }
+    }
+
+    // Waits until every submitted notification has been delivered or given up on.
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            awaitIdle(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.forEach(Thread::interrupt);
+    }
+
+    public Stats getStats() {
+        long deliveredCount = delivered.sum();
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        return new Stats(submitted.sum(), deliveredCount, failed.sum(), retries.sum(), batches.sum(),
+                queue.size(), elapsedSeconds > 0 ? deliveredCount / elapsedSeconds : 0,
+                deliveredCount > 0 ? totalLatencyNanos.sum() / deliveredCount : 0, maxLatencyNanos.get());
+    }
+
+    public record Stats(long submitted, long delivered, long failed, long retries, long batches, int queued,
+                        double deliveredPerSecond, long averageLatencyNanos, long maxLatencyNanos) {
+    }
+
+    private void runWorker() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            deliver(batch);
+            inFlight.addAndGet(-batch.size());
+            batch.clear();
+        }
+    }
+
+    private void deliver(List<Notification> batch) {
+        long backoffMillis = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transport.send(batch);
+                break;
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) {
+                    failed.add(batch.size());
+                    return;
+                }
+                retries.increment();
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    failed.add(batch.size());
+                    return;
+                }
+                backoffMillis *= 2;
+            }
+        }
+        batches.increment();
+        delivered.add(batch.size());
+        long now = System.nanoTime();
+        for (Notification notification : batch) {
+            long latency = now - notification.createdNanos();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+    }
+}
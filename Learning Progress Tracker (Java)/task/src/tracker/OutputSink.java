@@ -0,0 +1,27 @@
+package tracker;
+
+// Destination for tracker responses. Implementations may buffer; callers flush before they block for input.
+public interface OutputSink {
+
+    OutputSink append(CharSequence text);
+
+    OutputSink append(char c);
+
+    OutputSink append(int value);
+
+    OutputSink append(long value);
+
+    OutputSink append(double value);
+
+    OutputSink newLine();
+
+    default OutputSink println(CharSequence text) {
+        return append(text).newLine();
+    }
+
+    void flush();
+
+    // Runs before buffered output is handed on, so a session can hold back acknowledgements until what they
+    // acknowledge is durable. Replaces any earlier barrier.
+    void setWriteBarrier(Runnable barrier);
+}
@@ -0,0 +1,267 @@
+package tracker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+
+// Imports "id p1 p2 ... pN" lines, one column per course, from a points log.
+// The file is cut into chunks on line boundaries; each chunk is memory-mapped and parsed on a fork-join pool
+// straight from the mapped bytes. Parsed chunks are applied strictly in file order, so every student sees
+// their updates in the order they were logged.
+public class PointsImporter {
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 24;
+    private static final String INCORRECT_FORMAT = "Incorrect points format.";
+    private static final int ESTIMATED_BYTES_PER_LINE = 16;
+
+    private final StudentRegistry registry;
+    private final BiConsumer<Student, int[]> applier;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    // The applier receives a reused points array and must not keep it.
+    public PointsImporter(StudentRegistry registry, BiConsumer<Student, int[]> applier) {
+        this(registry, applier, ForkJoinPool.commonPool(), 0);
+    }
+
+    // A chunkSize of 0 picks one from the file size and the pool's parallelism. At most two chunks per worker
+    // are parsed ahead of the one being applied, which bounds memory on multi-GB logs.
+    public PointsImporter(StudentRegistry registry, BiConsumer<Student, int[]> applier, ForkJoinPool pool, int chunkSize) {
+        this.registry = registry;
+        this.applier = applier;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public record Report(long applied, List<ImportError> errors) {
+    }
+
+    public Report importFrom(Path path) throws IOException {
+        List<ImportError> errors = new ArrayList<>();
+        long applied;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // Rebuilding the leaderboards once is cheaper than keeping them ranked through a large import.
+            boolean bulk = size / ESTIMATED_BYTES_PER_LINE >= registry.size() / 4;
+            if (bulk) {
+                registry.suspendRanking();
+            }
+            try {
+                applied = apply(channel, chunkBounds(channel, size), errors);
+            } finally {
+                if (bulk) {
+                    registry.resumeRanking();
+                }
+            }
+        }
+        return new Report(applied, errors);
+    }
+
+    private long apply(FileChannel channel, long[] bounds, List<ImportError> errors) throws IOException {
+        int columns = registry.getPoints().getCourses().size();
+        int[] points = new int[columns];
+        long applied = 0;
+        long linesBefore = 0;
+        int window = pool.getParallelism() * 2;
+        ArrayDeque<ForkJoinTask<ParsedChunk>> inFlight = new ArrayDeque<>();
+        int next = 0;
+        while (next < bounds.length - 1 || !inFlight.isEmpty()) {
+            while (next < bounds.length - 1 && inFlight.size() < window) {
+                long start = bounds[next];
+                long end = bounds[++next];
+                inFlight.add(pool.submit(() -> parse(channel, start, end, columns)));
+            }
+            ParsedChunk chunk = join(inFlight.poll());
+            int error = 0;
+            for (int record = 0; record < chunk.recordCount; record++) {
+                int base = record * (columns + 2);
+                int line = chunk.records[base];
+                for (; error < chunk.errorCount && chunk.errorLines[error] < line; error++) {
+                    errors.add(new ImportError(linesBefore + chunk.errorLines[error], chunk.errorMessages[error]));
+                }
+                Student student = registry.findById(chunk.records[base + 1]);
+                if (student == null) {
+                    errors.add(new ImportError(linesBefore + line,
+                            "No student is found for id=" + chunk.records[base + 1] + "."));
+                    continue;
+                }
+                System.arraycopy(chunk.records, base + 2, points, 0, columns);
+                applier.accept(student, points);
+                applied++;
+            }
+            for (; error < chunk.errorCount; error++) {
+                errors.add(new ImportError(linesBefore + chunk.errorLines[error], chunk.errorMessages[error]));
+            }
+            linesBefore += chunk.lineCount;
+        }
+        return applied;
+    }
+
+    // A chunk that failed to parse fails the import with the reason, not with the pool's wrapper of it.
+    private static ParsedChunk join(ForkJoinTask<ParsedChunk> task) throws IOException {
+        try {
+            return task.join();
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException io) {
+                    throw new IOException(io.getMessage(), e);
+                }
+            }
+            throw new IOException(e.toString(), e);
+        }
+    }
+
+    // Chunk boundaries, each just past a '\n' (or at the ends of the file).
+    private long[] chunkBounds(FileChannel channel, long size) throws IOException {
+        long target = chunkSize > 0
+                ? chunkSize
+                : Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, size / (pool.getParallelism() * 4L) + 1));
+        long[] bounds = new long[(int) (size / target) + 2];
+        int count = 0;
+        bounds[count++] = 0;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = target;
+        while (position < size) {
+            long boundary = nextLineStart(channel, position, size, probe);
+            if (boundary >= size) {
+                break;
+            }
+            bounds[count++] = boundary;
+            position = boundary + target;
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long position = from - 1;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return size;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Records are stored flat as [line, id, p1..pN]; lines are numbered from 1 within the chunk.
+    // Ids that are syntactically valid are kept for the in-order lookup; anything else becomes an error here.
+    private static final class ParsedChunk {
+        int[] records = new int[1024];
+        int recordCount;
+        int[] errorLines = new int[16];
+        String[] errorMessages = new String[16];
+        int errorCount;
+        int lineCount;
+
+        void error(int line, String message) {
+            if (errorCount == errorLines.length) {
+                errorLines = Arrays.copyOf(errorLines, errorCount * 2);
+                errorMessages = Arrays.copyOf(errorMessages, errorCount * 2);
+            }
+            errorLines[errorCount] = line;
+            errorMessages[errorCount++] = message;
+        }
+    }
+
+    private static ParsedChunk parse(FileChannel channel, long start, long end, int columns) throws IOException {
+        ParsedChunk chunk = new ParsedChunk();
+        if (end <= start) {
+            return chunk;
+        }
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int limit = bytes.limit();
+        int stride = columns + 2;
+        int position = 0;
+        int line = 0;
+        while (position < limit) {
+            line++;
+            int lineEnd = position;
+            while (lineEnd < limit && bytes.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (chunk.recordCount * stride + stride > chunk.records.length) {
+                chunk.records = Arrays.copyOf(chunk.records, chunk.records.length * 2);
+            }
+            int base = chunk.recordCount * stride;
+            int tokens = 0;
+            boolean numeric = true;
+            boolean validId = true;
+            int p = position;
+            while (true) {
+                while (p < lineEnd && isBlank(bytes.get(p))) {
+                    p++;
+                }
+                if (p == lineEnd) {
+                    break;
+                }
+                int tokenStart = p;
+                long value = 0;
+                boolean digits = true;
+                for (; p < lineEnd && !isBlank(bytes.get(p)); p++) {
+                    byte b = bytes.get(p);
+                    if (b < '0' || b > '9') {
+                        digits = false;
+                    } else if (value <= Integer.MAX_VALUE) {
+                        value = value * 10 + (b - '0');
+                    }
+                }
+                if (tokens == 0) {
+                    // Same rules as StudentIdAllocator.parse, without building the String.
+                    validId = digits && value >= StudentIdAllocator.FIRST_ID && value <= Integer.MAX_VALUE
+                            && bytes.get(tokenStart) != '0';
+                    if (validId) {
+                        chunk.records[base + 1] = (int) value;
+                    } else {
+                        chunk.records[base + 1] = tokenStart;
+                        chunk.records[base] = p;
+                    }
+                } else if (tokens <= columns) {
+                    if (!digits || value > Integer.MAX_VALUE) {
+                        numeric = false;
+                    } else {
+                        chunk.records[base + 1 + tokens] = (int) value;
+                    }
+                }
+                tokens++;
+            }
+            if (tokens == 0) {
+                // Blank lines carry no update.
+            } else if (tokens != columns + 1 || !numeric) {
+                chunk.error(line, INCORRECT_FORMAT);
+            } else if (!validId) {
+                byte[] id = new byte[chunk.records[base] - chunk.records[base + 1]];
+                bytes.get(chunk.records[base + 1], id);
+                chunk.error(line, "No student is found for id=" + new String(id, StandardCharsets.UTF_8) + ".");
+            } else {
+                chunk.records[base] = line;
+                chunk.recordCount++;
+            }
+            position = lineEnd + 1;
+        }
+        chunk.lineCount = line;
+        return chunk;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
@@ -0,0 +1,131 @@
+package tracker;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Column-oriented points storage: one paged int column per course, indexed by student slot.
+// Pages are never copied when the matrix grows, only the (small) page tables are.
+// Growth is synchronized; readers only touch a slot after the registry has published its student,
+// which happens after the slot's pages exist. Cells of one student are guarded by that student's lock.
+public class PointsMatrix {
+    static final int PAGE_SHIFT = 12;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final List<Course> courses;
+    private final int wordsPerSlot;
+    private final int[][][] columns;
+    private long[][] enrolledBits;
+    private long[][] removedBits;
+    private long[][] completionPendingBits;
+    private int pageCount;
+
+    public PointsMatrix(List<Course> courses) {
+        for (int i = 0; i < courses.size(); i++) {
+            if (courses.get(i).getOrdinal() != i) {
+                throw new IllegalArgumentException("Course " + courses.get(i).getName() + " has ordinal "
+                        + courses.get(i).getOrdinal() + " but is at position " + i);
+            }
+        }
+        this.courses = List.copyOf(courses);
+        wordsPerSlot = (courses.size() + 63) >>> 6;
+        columns = new int[courses.size()][][];
+        for (int course = 0; course < columns.length; course++) {
+            columns[course] = new int[0][];
+        }
+        enrolledBits = new long[0][];
+        removedBits = new long[0][];
+        completionPendingBits = new long[0][];
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    public int getCourseCount() {
+        return columns.length;
+    }
+
+    public synchronized int getCapacity() {
+        return pageCount << PAGE_SHIFT;
+    }
+
+    public synchronized void ensureCapacity(int slot) {
+        int requiredPages = (slot >>> PAGE_SHIFT) + 1;
+        if (requiredPages <= pageCount) {
+            return;
+        }
+        int newPageCount = Math.max(requiredPages, pageCount * 2);
+        for (int course = 0; course < columns.length; course++) {
+            int[][] column = Arrays.copyOf(columns[course], newPageCount);
+            for (int page = pageCount; page < newPageCount; page++) {
+                column[page] = new int[PAGE_SIZE];
+            }
+            columns[course] = column;
+        }
+        enrolledBits = growBitPages(enrolledBits, newPageCount);
+        removedBits = growBitPages(removedBits, newPageCount);
+        completionPendingBits = growBitPages(completionPendingBits, newPageCount);
+        pageCount = newPageCount;
+    }
+
+    private long[][] growBitPages(long[][] pages, int newPageCount) {
+        long[][] grown = Arrays.copyOf(pages, newPageCount);
+        for (int page = pageCount; page < newPageCount; page++) {
+            grown[page] = new long[PAGE_SIZE * wordsPerSlot];
+        }
+        return grown;
+    }
+
+    public int getPoints(int slot, int course) {
+        return columns[course][slot >>> PAGE_SHIFT][slot & PAGE_MASK];
+    }
+
+    public void setPoints(int slot, int course, int points) {
+        columns[course][slot >>> PAGE_SHIFT][slot & PAGE_MASK] = points;
+    }
+
+    public int addPoints(int slot, int course, int points) {
+        int[] page = columns[course][slot >>> PAGE_SHIFT];
+        return page[slot & PAGE_MASK] += points;
+    }
+
+    public boolean isEnrolled(int slot, int course) {
+        return testBit(enrolledBits, slot, course);
+    }
+
+    public void setEnrolled(int slot, int course, boolean enrolled) {
+        assignBit(enrolledBits, slot, course, enrolled);
+    }
+
+    public boolean isRemoved(int slot, int course) {
+        return testBit(removedBits, slot, course);
+    }
+
+    public void setRemoved(int slot, int course, boolean removed) {
+        assignBit(removedBits, slot, course, removed);
+    }
+
+    public boolean isCompletionPending(int slot, int course) {
+        return testBit(completionPendingBits, slot, course);
+    }
+
+    public void setCompletionPending(int slot, int course, boolean pending) {
+        assignBit(completionPendingBits, slot, course, pending);
+    }
+
+    private boolean testBit(long[][] bits, int slot, int course) {
+        long word = bits[slot >>> PAGE_SHIFT][(slot & PAGE_MASK) * wordsPerSlot + (course >>> 6)];
+        return (word & (1L << course)) != 0;
+    }
+
+    private void assignBit(long[][] bits, int slot, int course, boolean value) {
+        long[] page = bits[slot >>> PAGE_SHIFT];
+        int index = (slot & PAGE_MASK) * wordsPerSlot + (course >>> 6);
+        if (value) {
+            page[index] |= 1L << course;
+        } else {
+            page[index] &= ~(1L << course);
+        }
+    }
+}
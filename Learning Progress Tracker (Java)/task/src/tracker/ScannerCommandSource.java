@@ -0,0 +1,18 @@
+package tracker;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+public class ScannerCommandSource implements CommandSource {
+    private final Scanner scanner;
+
+    public ScannerCommandSource(InputStream in) {
+        scanner = new Scanner(in, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String readLine() {
+        return scanner.hasNextLine() ? scanner.nextLine() : null;
+    }
+}
@@ -0,0 +1,278 @@
+package tracker;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Binary image of the whole tracker state. Integers are unsigned LEB128 varints, student IDs are
+// delta-encoded against the previous student, and the file is read back through a memory mapping.
+//
+//   magic "LPTS", version
+//   journal generation, journal offset
+//   course count, then per course: name, total points, completed tasks, completed task points
+//   student count, then per student: ID delta, first name, last name, email,
+//                                     enrolled mask, removed mask, points per course
+//   per course: ranked student count, then the slots in leaderboard order
+//   per course: completed student count, then the slots as deltas               (since version 2)
+//   pending completion count, then per completion: slot delta, course
+//
+// Masks are written one varint per 64 courses. Snapshots are written to a temporary file, forced
+// to disk and atomically moved over the previous one. Every count is the number of entries actually written.
+// Completions are stored rather than derived from points: a student completes a course by reaching exactly its
+// total and stays completed past it. Version 1 files are still read, rebuilding completions as before.
+public class SnapshotFile {
+    private static final int MAGIC = 0x4C505453;
+    private static final int VERSION = 2;
+
+    private SnapshotFile() {
+    }
+
+    // Writers must be stopped for the duration, see StudentRegistry.withWritersStopped; otherwise the image
+    // mixes states from before and after the updates that land meanwhile. Returns the number of students written.
+    public static int write(Path path, StudentRegistry registry, CommandJournal.Position journalPosition)
+            throws IOException {
+        Student[] students = registry.stream().toArray(Student[]::new);
+        PointsMatrix points = registry.getPoints();
+        List<Course> courses = points.getCourses();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            writeVarLong(out, VERSION);
+            writeVarLong(out, journalPosition.generation());
+            writeVarLong(out, journalPosition.offset());
+
+            writeVarLong(out, courses.size());
+            for (Course course : courses) {
+                writeString(out, course.getName());
+                writeVarLong(out, course.getTotalNumberOfPoints());
+                writeVarLong(out, course.getTotalNumberOfCompletedTasks());
+                writeVarLong(out, course.getTotalNumberOfCompletedTasksPoint());
+            }
+
+            writeVarLong(out, students.length);
+            int previousId = StudentIdAllocator.FIRST_ID;
+            for (Student student : students) {
+                writeVarLong(out, student.getNumericID() - previousId);
+                previousId = student.getNumericID();
+                writeString(out, student.getFirstName());
+                writeString(out, student.getLastName());
+                writeString(out, student.getEmail());
+                int slot = student.getSlot();
+                for (int word = 0; word < courses.size(); word += 64) {
+                    writeVarLong(out, mask(points, slot, word, courses.size(), true));
+                    writeVarLong(out, mask(points, slot, word, courses.size(), false));
+                }
+                for (int course = 0; course < courses.size(); course++) {
+                    writeVarLong(out, points.getPoints(slot, course));
+                }
+            }
+
+            for (Course course : courses) {
+                int[] ranked = registry.getLeaderboard(course).top(Integer.MAX_VALUE);
+                writeVarLong(out, ranked.length);
+                for (int slot : ranked) {
+                    writeVarLong(out, slot);
+                }
+            }
+
+            for (Course course : courses) {
+                StudentBitmap completed = course.getCompletedStudents();
+                int[] slots = new int[completed.cardinality()];
+                int[] count = {0};
+                completed.forEach(slot -> {
+                    slots[count[0]++] = slot;
+                    return count[0] < slots.length;
+                });
+                writeVarLong(out, count[0]);
+                int previous = 0;
+                for (int i = 0; i < count[0]; i++) {
+                    writeVarLong(out, slots[i] - previous);
+                    previous = slots[i];
+                }
+            }
+
+            long[] pending = registry.getCompletions().peekAll();
+            writeVarLong(out, pending.length);
+            int previousSlot = 0;
+            for (long event : pending) {
+                writeVarLong(out, CompletionQueue.slotOf(event) - previousSlot);
+                previousSlot = CompletionQueue.slotOf(event);
+                writeVarLong(out, CompletionQueue.courseOf(event));
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return students.length;
+    }
+
+    // Loads a snapshot into an empty registry and returns the journal position it covers.
+    public static CommandJournal.Position read(Path path, StudentRegistry registry) throws IOException {
+        if (!registry.isEmpty()) {
+            throw new IllegalStateException("Snapshots can only be loaded into an empty registry");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + path + " is larger than 2 GB");
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC) {
+                throw new IOException(path + " is not a tracker snapshot");
+            }
+            long version = readVarLong(in);
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + path);
+            }
+            CommandJournal.Position position = new CommandJournal.Position(readVarLong(in), readVarLong(in));
+
+            PointsMatrix points = registry.getPoints();
+            List<Course> courses = points.getCourses();
+            int courseCount = (int) readVarLong(in);
+            if (courseCount != courses.size()) {
+                throw new IOException("Snapshot has " + courseCount + " courses, tracker has " + courses.size());
+            }
+            for (Course course : courses) {
+                String name = readString(in);
+                long totalPoints = readVarLong(in);
+                if (!name.equals(course.getName()) || totalPoints != course.getTotalNumberOfPoints()) {
+                    throw new IOException("Snapshot course " + name + " does not match " + course.getName());
+                }
+                course.restoreTotals(readVarLong(in), readVarLong(in));
+            }
+
+            long studentCount = readVarLong(in);
+            registry.reserve((int) studentCount);
+            int id = StudentIdAllocator.FIRST_ID;
+            long[] enrolled = new long[(courseCount + 63) >>> 6];
+            long[] removed = new long[enrolled.length];
+            for (long i = 0; i < studentCount; i++) {
+                id += (int) readVarLong(in);
+                Student student = registry.register(readString(in), readString(in), readString(in));
+                if (student == null || student.getNumericID() != id) {
+                    throw new IOException("Student " + id + " in " + path + " cannot be restored in order");
+                }
+                for (int word = 0; word < enrolled.length; word++) {
+                    enrolled[word] = readVarLong(in);
+                    removed[word] = readVarLong(in);
+                }
+                int slot = student.getSlot();
+                for (int course = 0; course < courseCount; course++) {
+                    int coursePoints = (int) readVarLong(in);
+                    points.setPoints(slot, course, coursePoints);
+                    if (version == 1 && coursePoints == courses.get(course).getTotalNumberOfPoints()) {
+                        courses.get(course).recordCompletion(student);
+                    }
+                    if ((removed[course >>> 6] & 1L << course) != 0) {
+                        points.setRemoved(slot, course, true);
+                    }
+                    if ((enrolled[course >>> 6] & 1L << course) != 0) {
+                        points.setEnrolled(slot, course, true);
+                        courses.get(course).enrollStudent(student);
+                    }
+                }
+            }
+
+            int[] ranked = new int[0];
+            for (Course course : courses) {
+                int count = (int) readVarLong(in);
+                if (ranked.length < count) {
+                    ranked = new int[count];
+                }
+                for (int i = 0; i < count; i++) {
+                    ranked[i] = (int) readVarLong(in);
+                }
+                try {
+                    registry.getLeaderboard(course).buildFromRanked(ranked, count);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Corrupt " + course.getName() + " leaderboard in " + path, e);
+                }
+            }
+
+            if (version >= 2) {
+                for (Course course : courses) {
+                    long count = readVarLong(in);
+                    int completed = 0;
+                    for (long i = 0; i < count; i++) {
+                        completed += (int) readVarLong(in);
+                        Student student = registry.findById(StudentIdAllocator.idOf(completed));
+                        if (student == null) {
+                            throw new IOException("Unknown student completed " + course.getName() + " in " + path);
+                        }
+                        course.recordCompletion(student);
+                    }
+                }
+            }
+
+            long pendingCount = readVarLong(in);
+            int slot = 0;
+            for (long i = 0; i < pendingCount; i++) {
+                slot += (int) readVarLong(in);
+                registry.getCompletions().offer(slot, (int) readVarLong(in));
+            }
+            return position;
+        }
+    }
+
+    private static long mask(PointsMatrix points, int slot, int firstCourse, int courseCount, boolean enrolled) {
+        long mask = 0;
+        for (int course = firstCourse; course < Math.min(firstCourse + 64, courseCount); course++) {
+            if (enrolled ? points.isEnrolled(slot, course) : points.isRemoved(slot, course)) {
+                mask |= 1L << course;
+            }
+        }
+        return mask;
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(in.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + length);
+        return value;
+    }
+}
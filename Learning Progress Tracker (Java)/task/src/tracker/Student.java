@@ -1,55 +1,118 @@
 package tracker;
 
 import java.util.*;
-
-import static tracker.Course.*;
-import static tracker.CoursesDataStore.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class Student {
-    private final String ID = UUID.randomUUID().toString().substring(0, 5);
+    private final int ID;
     private String firstName;
     private String lastName;
     private String email;
 
-    private final Map<Course, Integer> enrolledCourses;
-    public Student(String firstName, String lastName, String email) {
+    private final StudentRegistry registry;
+    private final PointsMatrix points;
+    private final int slot;
+
+    public Student(int ID, String firstName, String lastName, String email, StudentRegistry registry) {
+        this.ID = ID;
         this.firstName = firstName;
         this.lastName = lastName;
         this.email = email;
-        enrolledCourses = new LinkedHashMap<>();
-        enrolledCourses.put(JAVA.getInstance(), 0);
-        enrolledCourses.put(DSA.getInstance(), 0);
-        enrolledCourses.put(DATABASE.getInstance(), 0);
-        enrolledCourses.put(SPRING.getInstance(), 0);
+        this.registry = registry;
+        points = registry.getPoints();
+        slot = StudentIdAllocator.slotOf(ID);
+        points.ensureCapacity(slot);
     }
 
     public boolean addCourse(Course course) {
-        if(!enrolledCourses.containsKey(course)) {
-            enrolledCourses.put(course, 0);
-            return true;
+        ReentrantLock lock = lock();
+        try {
+            if (points.isRemoved(slot, course.getOrdinal())) {
+                points.setRemoved(slot, course.getOrdinal(), false);
+                points.setPoints(slot, course.getOrdinal(), 0);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
 
     public void updatePoints(Course course, int point) {
-        if(enrolledCourses.containsKey(course)) {
-            if(point > 0) {
-                enrolledCourses.put(course, enrolledCourses.getOrDefault(course, 0) + point);
-                course.updateTotalNumberOfCompletedTasks(1, point);
+        updatePoints(course, point, true);
+    }
+
+    // Points replayed from the journal were submitted before the restart, so they leave the activity
+    // window alone: 'statistics window' only counts what arrived while this process ran.
+    void updatePoints(Course course, int point, boolean recordActivity) {
+        int ordinal = course.getOrdinal();
+        if (point <= 0) {
+            return;
+        }
+        ReentrantLock lock = lock();
+        try {
+            if (points.isRemoved(slot, ordinal)) {
+                return;
+            }
+            CourseLeaderboard leaderboard = registry.isRankingSuspended() ? null : registry.getLeaderboard(course);
+            boolean enrolled = points.isEnrolled(slot, ordinal);
+            if (enrolled && leaderboard != null) {
+                leaderboard.remove(slot);
+            }
+            int coursePoints = points.addPoints(slot, ordinal, point);
+            if (leaderboard != null) {
+                leaderboard.add(slot);
+            }
+            if (coursePoints == course.getTotalNumberOfPoints()) {
+                registry.getCompletions().offer(slot, ordinal);
+                course.recordCompletion(this);
+            }
+            course.updateTotalNumberOfCompletedTasks(1, point);
+            if (recordActivity) {
+                course.recordActivity(point);
+            }
+            if (!enrolled) {
+                points.setEnrolled(slot, ordinal, true);
                 course.enrollStudent(this);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
-    public void printPoints() {
-        List<String> output = new ArrayList<>();
-        enrolledCourses.forEach((course, integer) -> {
-            if(integer >= 0) {
-                output.add(course.getName() + "=" + integer);
+    // Locks this student's stripe; callers that combine several updates into one step hold it across them.
+    public ReentrantLock lock() {
+        ReentrantLock lock = registry.lockFor(slot);
+        lock.lock();
+        return lock;
+    }
+
+    // The points are copied under the lock and written after it: writing may wait for a slow peer.
+    public void printPoints(OutputSink out) {
+        List<Course> courses = points.getCourses();
+        int[] coursePoints = new int[courses.size()];
+        boolean[] removed = new boolean[courses.size()];
+        ReentrantLock lock = lock();
+        try {
+            for (Course course : courses) {
+                removed[course.getOrdinal()] = points.isRemoved(slot, course.getOrdinal());
+                coursePoints[course.getOrdinal()] = points.getPoints(slot, course.getOrdinal());
             }
-        });
-        String joinedString = String.join("; ", output);
-        System.out.printf("%s points: %s%n", ID, joinedString);
+        } finally {
+            lock.unlock();
+        }
+        out.append(ID).append(" points: ");
+        boolean first = true;
+        for (Course course : courses) {
+            if (!removed[course.getOrdinal()]) {
+                if (!first) {
+                    out.append("; ");
+                }
+                out.append(course.getName()).append('=').append(coursePoints[course.getOrdinal()]);
+                first = false;
+            }
+        }
+        out.newLine();
     }
 
     @Override
@@ -67,13 +130,21 @@ public class Student {
 
     @Override
     public String toString() {
-        return this.ID;
+        return getID();
     }
 
     public String getID() {
+        return StudentIdAllocator.format(ID);
+    }
+
+    public int getNumericID() {
         return ID;
     }
 
+    public int getSlot() {
+        return slot;
+    }
+
     public String getLastName() {
         return lastName;
     }
@@ -99,16 +170,37 @@ public class Student {
     }
 
     public int getPointsForCourse(Course course) {
-        return enrolledCourses.getOrDefault(course, 0);
+        ReentrantLock lock = lock();
+        try {
+            if (points.isRemoved(slot, course.getOrdinal())) {
+                return 0;
+            }
+            return points.getPoints(slot, course.getOrdinal());
+        } finally {
+            lock.unlock();
+        }
     }
 
     public double getCompletionPercentage(Course course) {
+        return completionPercentage(getPointsForCourse(course), course);
+    }
+
+    public static double completionPercentage(int points, Course course) {
         // Percentage of completion = (Points of completed tasks / Total points for course) * 100
-        double percentageOfCompletion = (double) enrolledCourses.get(course) / course.getTotalNumberOfPoints() * 100;
+        double percentageOfCompletion = (double) points / course.getTotalNumberOfPoints() * 100;
         return (double) Math.round(percentageOfCompletion * 10) / 10;
     }
 
     public void removeCourseFromEnrolledList(Course course) {
-        enrolledCourses.remove(course);
+        ReentrantLock lock = lock();
+        try {
+            if (points.isEnrolled(slot, course.getOrdinal()) && !registry.isRankingSuspended()) {
+                registry.getLeaderboard(course).remove(slot);
+            }
+            points.setRemoved(slot, course.getOrdinal(), true);
+            points.setEnrolled(slot, course.getOrdinal(), false);
+        } finally {
+            lock.unlock();
+        }
     }
 }
@@ -0,0 +1,575 @@
+package tracker;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+// A compressed set of student slots laid out like a Roaring bitmap. Slots are split into chunks of 2^16 by their
+// high bits, and each chunk is kept in whichever container is smaller for it: a sorted array of the low 16 bits
+// while it holds at most 4096 slots (2 bytes a slot), a 1024-word bitmap above that (8 KB whatever the count).
+// Slots are dense, so chunks are found by index instead of through roaring's sorted key list.
+// add/remove/contains take no lock, so enrolling students on different stripes never queues on a course. Array
+// containers are never changed once published: a writer copies one with its change and swaps it in by CAS, and
+// one that outgrows the array is promoted the same way. Bitmap containers are updated a word at a time by CAS and
+// stay bitmaps while they are shared; a snapshot shrinks them back. Only growing the chunk table takes a lock.
+// and/or/andNot build new bitmaps and must not see their operands change, so a bitmap that others write to is
+// combined through a snapshot(). A snapshot, like forEach, sees each concurrent write either entirely or not.
+public class StudentBitmap {
+    static final int CHUNK_BITS = 16;
+    static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = (1 << CHUNK_BITS) >>> 6;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle CONTAINER;
+    private static final VarHandle BITMAP_CARDINALITY;
+
+    static {
+        try {
+            CONTAINER = MethodHandles.lookup().findVarHandle(Chunk.class, "container", Container.class);
+            BITMAP_CARDINALITY = MethodHandles.lookup().findVarHandle(BitmapContainer.class, "cardinality", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Chunk[] chunks = new Chunk[0];
+    private final LongAdder cardinality = new LongAdder();
+
+    // Holds a chunk's container. Tables share their cells when the table grows, so no swap is lost to a copy.
+    private static final class Chunk {
+        volatile Container container;
+
+        Chunk(Container container) {
+            this.container = container;
+        }
+
+        boolean compareAndSet(Container expected, Container updated) {
+            return CONTAINER.compareAndSet(this, expected, updated);
+        }
+    }
+
+    public boolean add(int slot) {
+        Chunk chunk = chunk(slot >>> CHUNK_BITS, true);
+        char low = (char) slot;
+        while (true) {
+            Container container = chunk.container;
+            if (container instanceof BitmapContainer bitmap) {
+                if (!bitmap.setConcurrently(low)) {
+                    return false;
+                }
+                break;
+            }
+            ArrayContainer array = (ArrayContainer) container;
+            Container updated = array == null ? new ArrayContainer(new char[]{low}, 1) : array.with(low);
+            if (updated == array) {
+                return false;
+            }
+            if (chunk.compareAndSet(array, updated)) {
+                break;
+            }
+        }
+        cardinality.increment();
+        return true;
+    }
+
+    public boolean remove(int slot) {
+        Chunk chunk = slot < 0 ? null : chunk(slot >>> CHUNK_BITS, false);
+        if (chunk == null) {
+            return false;
+        }
+        char low = (char) slot;
+        while (true) {
+            Container container = chunk.container;
+            if (container instanceof BitmapContainer bitmap) {
+                if (!bitmap.clearConcurrently(low)) {
+                    return false;
+                }
+                break;
+            }
+            ArrayContainer array = (ArrayContainer) container;
+            if (array == null) {
+                return false;
+            }
+            ArrayContainer updated = array.without(low);
+            if (updated == array) {
+                return false;
+            }
+            if (chunk.compareAndSet(array, updated.size == 0 ? null : updated)) {
+                break;
+            }
+        }
+        cardinality.decrement();
+        return true;
+    }
+
+    public boolean contains(int slot) {
+        Container container = slot < 0 ? null : container(chunks, slot >>> CHUNK_BITS);
+        return container != null && container.contains((char) slot);
+    }
+
+    public int cardinality() {
+        return cardinality.intValue();
+    }
+
+    public boolean isEmpty() {
+        return cardinality() == 0;
+    }
+
+    // A private copy, for combining with other bitmaps while this one keeps changing. Array containers are
+    // shared, as nothing changes them; bitmap containers are copied.
+    public StudentBitmap snapshot() {
+        Chunk[] current = chunks;
+        StudentBitmap copy = new StudentBitmap();
+        Chunk[] copied = new Chunk[current.length];
+        copy.chunks = copied;
+        for (int i = 0; i < current.length; i++) {
+            Container container = container(current, i);
+            if (container != null) {
+                copy.set(i, container.copy());
+            }
+        }
+        return copy;
+    }
+
+    public StudentBitmap and(StudentBitmap other) {
+        Chunk[] left = chunks;
+        Chunk[] right = other.chunks;
+        StudentBitmap result = new StudentBitmap();
+        result.chunks = new Chunk[Math.min(left.length, right.length)];
+        for (int i = 0; i < result.chunks.length; i++) {
+            Container a = container(left, i);
+            Container b = container(right, i);
+            if (a != null && b != null) {
+                result.set(i, a.and(b));
+            }
+        }
+        return result;
+    }
+
+    public StudentBitmap or(StudentBitmap other) {
+        Chunk[] left = chunks;
+        Chunk[] right = other.chunks;
+        StudentBitmap result = new StudentBitmap();
+        result.chunks = new Chunk[Math.max(left.length, right.length)];
+        for (int i = 0; i < result.chunks.length; i++) {
+            Container a = container(left, i);
+            Container b = container(right, i);
+            if (a != null && b != null) {
+                result.set(i, a.or(b));
+            } else if (a != null || b != null) {
+                result.set(i, (a != null ? a : b).copy());
+            }
+        }
+        return result;
+    }
+
+    public StudentBitmap andNot(StudentBitmap other) {
+        Chunk[] left = chunks;
+        Chunk[] right = other.chunks;
+        StudentBitmap result = new StudentBitmap();
+        result.chunks = new Chunk[left.length];
+        for (int i = 0; i < left.length; i++) {
+            Container a = container(left, i);
+            if (a == null) {
+                continue;
+            }
+            Container b = container(right, i);
+            result.set(i, b == null ? a.copy() : a.andNot(b));
+        }
+        return result;
+    }
+
+    // Only for bitmaps nobody else sees yet.
+    private void set(int chunk, Container container) {
+        if (container.cardinality() > 0) {
+            chunks[chunk] = new Chunk(container);
+            cardinality.add(container.cardinality());
+        }
+    }
+
+    private static Container container(Chunk[] table, int index) {
+        Chunk chunk = index < table.length ? table[index] : null;
+        return chunk == null ? null : chunk.container;
+    }
+
+    private Chunk chunk(int index, boolean create) {
+        Chunk[] current = chunks;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        return create ? createChunk(index) : null;
+    }
+
+    private synchronized Chunk createChunk(int index) {
+        Chunk[] current = chunks;
+        if (index >= current.length) {
+            current = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+        }
+        if (current[index] == null) {
+            current[index] = new Chunk(null);
+        }
+        chunks = current;
+        return current[index];
+    }
+
+    // Visits slots in ascending order until the visitor returns false.
+    public void forEach(IntPredicate visitor) {
+        Chunk[] current = chunks;
+        for (int i = 0; i < current.length; i++) {
+            Container container = container(current, i);
+            if (container != null && !container.forEach(i << CHUNK_BITS, visitor)) {
+                return;
+            }
+        }
+    }
+
+    // Heap bytes held by the containers, their cells and the chunk table, counting object headers as 16 bytes.
+    public long sizeInBytes() {
+        Chunk[] current = chunks;
+        long bytes = 16 + 16 + 4L * current.length;
+        for (int i = 0; i < current.length; i++) {
+            Container container = container(current, i);
+            if (container != null) {
+                bytes += 16 + container.sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        // A container that later writes to this one do not change.
+        abstract Container copy();
+
+        abstract boolean forEach(int base, IntPredicate visitor);
+
+        abstract long sizeInBytes();
+    }
+
+    // Never changed once built: writers publish a changed copy instead.
+    private static final class ArrayContainer extends Container {
+        private final char[] values;
+        private final int size;
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        // This container itself when low is already in it; a bitmap once the array would outgrow ARRAY_MAX.
+        Container with(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX) {
+                BitmapContainer bitmap = toBitmap();
+                bitmap.set(low);
+                return bitmap;
+            }
+            index = -index - 1;
+            char[] result = new char[size + 1];
+            System.arraycopy(values, 0, result, 0, index);
+            result[index] = low;
+            System.arraycopy(values, index, result, index + 1, size - index);
+            return new ArrayContainer(result, size + 1);
+        }
+
+        // This container itself when low is not in it.
+        ArrayContainer without(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index < 0) {
+                return this;
+            }
+            char[] result = new char[size - 1];
+            System.arraycopy(values, 0, result, 0, index);
+            System.arraycopy(values, index + 1, result, index, size - index - 1);
+            return new ArrayContainer(result, size - 1);
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(size, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                for (int a = 0, b = 0; a < size && b < array.size; ) {
+                    if (values[a] < array.values[b]) {
+                        a++;
+                    } else if (values[a] > array.values[b]) {
+                        b++;
+                    } else {
+                        result[count++] = values[a];
+                        a++;
+                        b++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            if (size + array.size > ARRAY_MAX) {
+                BitmapContainer bitmap = toBitmap();
+                for (int i = 0; i < array.size; i++) {
+                    bitmap.set(array.values[i]);
+                }
+                return bitmap.shrinkIfSparse();
+            }
+            char[] result = new char[size + array.size];
+            int count = 0;
+            int a = 0;
+            int b = 0;
+            while (a < size && b < array.size) {
+                if (values[a] < array.values[b]) {
+                    result[count++] = values[a++];
+                } else if (values[a] > array.values[b]) {
+                    result[count++] = array.values[b++];
+                } else {
+                    result[count++] = values[a++];
+                    b++;
+                }
+            }
+            while (a < size) {
+                result[count++] = values[a++];
+            }
+            while (b < array.size) {
+                result[count++] = array.values[b++];
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (!other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container copy() {
+            return this;
+        }
+
+        @Override
+        boolean forEach(int base, IntPredicate visitor) {
+            for (int i = 0; i < size; i++) {
+                if (!visitor.test(base | values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 16 + 2L * values.length;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer(new long[BITMAP_WORDS], 0);
+            for (int i = 0; i < size; i++) {
+                bitmap.set(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    // set and clear only build containers nobody else sees yet; a bitmap in use is written through
+    // setConcurrently and clearConcurrently, which keep the cardinality atomically, and its copy counts its bits.
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private volatile int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return ((long) WORDS.getAcquire(words, low >>> 6) & 1L << low) != 0;
+        }
+
+        void set(char low) {
+            long word = words[low >>> 6];
+            long updated = word | 1L << low;
+            if (updated != word) {
+                words[low >>> 6] = updated;
+                cardinality++;
+            }
+        }
+
+        // Whether low was added, rather than there already.
+        boolean setConcurrently(char low) {
+            long bit = 1L << low;
+            long word;
+            do {
+                word = (long) WORDS.getVolatile(words, low >>> 6);
+                if ((word & bit) != 0) {
+                    return false;
+                }
+            } while (!WORDS.compareAndSet(words, low >>> 6, word, word | bit));
+            BITMAP_CARDINALITY.getAndAdd(this, 1);
+            return true;
+        }
+
+        // Whether low was removed, rather than absent.
+        boolean clearConcurrently(char low) {
+            long bit = 1L << low;
+            long word;
+            do {
+                word = (long) WORDS.getVolatile(words, low >>> 6);
+                if ((word & bit) == 0) {
+                    return false;
+                }
+            } while (!WORDS.compareAndSet(words, low >>> 6, word, word & ~bit));
+            BITMAP_CARDINALITY.getAndAdd(this, -1);
+            return true;
+        }
+
+        void clear(char low) {
+            long word = words[low >>> 6];
+            long updated = word & ~(1L << low);
+            if (updated != word) {
+                words[low >>> 6] = updated;
+                cardinality--;
+            }
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            return new BitmapContainer(result, count).shrinkIfSparse();
+        }
+
+        @Override
+        Container or(Container other) {
+            BitmapContainer result = new BitmapContainer(words.clone(), cardinality);
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.size; i++) {
+                    result.set(array.values[i]);
+                }
+                return result;
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] |= otherWords[i];
+                count += Long.bitCount(result.words[i]);
+            }
+            result.cardinality = count;
+            return result;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            BitmapContainer result = new BitmapContainer(words.clone(), cardinality);
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.size; i++) {
+                    result.clear(array.values[i]);
+                }
+                return result.shrinkIfSparse();
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] &= ~otherWords[i];
+                count += Long.bitCount(result.words[i]);
+            }
+            result.cardinality = count;
+            return result.shrinkIfSparse();
+        }
+
+        @Override
+        Container copy() {
+            long[] copied = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                copied[i] = (long) WORDS.getAcquire(words, i);
+                count += Long.bitCount(copied[i]);
+            }
+            return new BitmapContainer(copied, count).shrinkIfSparse();
+        }
+
+        @Override
+        boolean forEach(int base, IntPredicate visitor) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    if (!visitor.test(base | i << 6 | Long.numberOfTrailingZeros(word))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 16 + 8L * BITMAP_WORDS;
+        }
+
+        private Container shrinkIfSparse() {
+            if (cardinality > ARRAY_MAX) {
+                return this;
+            }
+            char[] values = new char[Math.max(cardinality, 1)];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    values[count++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
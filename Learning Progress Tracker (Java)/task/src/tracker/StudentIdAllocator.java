@@ -0,0 +1,88 @@
+package tracker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StudentIdAllocator {
+    public static final int FIRST_ID = 10000;
+    public static final int NO_ID = -1;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private final AtomicInteger nextId;
+
+    public StudentIdAllocator() {
+        this(FIRST_ID);
+    }
+
+    public StudentIdAllocator(int nextId) {
+        this.nextId = new AtomicInteger(nextId);
+    }
+
+    public int allocate() {
+        int id = nextId.getAndIncrement();
+        if (id < FIRST_ID) {
+            throw new IllegalStateException("Student ID space is exhausted");
+        }
+        return id;
+    }
+
+    public int allocatedCount() {
+        return nextId.get() - FIRST_ID;
+    }
+
+    public static int slotOf(int id) {
+        return id - FIRST_ID;
+    }
+
+    public static int idOf(int slot) {
+        return slot + FIRST_ID;
+    }
+
+    public static String format(int id) {
+        return Integer.toString(id);
+    }
+
+    // Orders IDs exactly as String.compareTo orders their formatted values, without formatting them.
+    public static int compareFormatted(int idA, int idB) {
+        int digitsA = digits(idA);
+        int digitsB = digits(idB);
+        long alignedA = idA;
+        long alignedB = idB;
+        if (digitsA < digitsB) {
+            alignedA *= POWERS_OF_TEN[digitsB - digitsA];
+        } else if (digitsB < digitsA) {
+            alignedB *= POWERS_OF_TEN[digitsA - digitsB];
+        }
+        if (alignedA != alignedB) {
+            return alignedA < alignedB ? -1 : 1;
+        }
+        return Integer.compare(digitsA, digitsB);
+    }
+
+    private static int digits(int id) {
+        int digits = 1;
+        while (digits < 10 && id >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    // Accepts only the canonical form produced by format(): digits without sign or leading zeros.
+    public static int parse(CharSequence text) {
+        int length = text.length();
+        if (length == 0 || length > 10 || text.charAt(0) == '0') {
+            return NO_ID;
+        }
+        long id = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_ID;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id < FIRST_ID || id > Integer.MAX_VALUE ? NO_ID : (int) id;
+    }
+}
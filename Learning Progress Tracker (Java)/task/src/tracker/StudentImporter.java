@@ -0,0 +1,150 @@
+package tracker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+// Imports "first name,last name,email" rows in batches. Parsing, validation and email normalization run
+// in parallel; duplicates are then resolved and students registered sequentially, so IDs follow file order.
+public class StudentImporter {
+    public static final int DEFAULT_BATCH_SIZE = 16_384;
+
+    private final StudentRegistry registry;
+    private final Consumer<Student> onAdded;
+    private final int batchSize;
+
+    public StudentImporter(StudentRegistry registry, Consumer<Student> onAdded) {
+        this(registry, onAdded, DEFAULT_BATCH_SIZE);
+    }
+
+    public StudentImporter(StudentRegistry registry, Consumer<Student> onAdded, int batchSize) {
+        this.registry = registry;
+        this.onAdded = onAdded;
+        this.batchSize = batchSize;
+    }
+
+    public record Report(long imported, List<ImportError> errors) {
+    }
+
+    private static final class Row {
+        String firstName;
+        String lastName;
+        String email;
+        String emailKey;
+        String error;
+    }
+
+    public Report importFrom(Path path) throws IOException {
+        List<ImportError> errors = new ArrayList<>();
+        long imported = 0;
+        long rowNumber = 0;
+        String[] lines = new String[batchSize];
+        Row[] rows = new Row[batchSize];
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            while (true) {
+                int count = 0;
+                String line;
+                while (count < batchSize && (line = reader.readLine()) != null) {
+                    lines[count++] = line;
+                }
+                if (count == 0) {
+                    break;
+                }
+                long firstRow = rowNumber + 1;
+                IntStream.range(0, count).parallel().forEach(i -> rows[i] = parse(lines[i], firstRow + i == 1));
+
+                registry.reserve(registry.size() + count);
+                for (int i = 0; i < count; i++) {
+                    Row row = rows[i];
+                    rowNumber++;
+                    if (row == null) {
+                        continue;
+                    }
+                    if (row.error != null) {
+                        errors.add(new ImportError(rowNumber, row.error));
+                        continue;
+                    }
+                    // register checks the email under the registry's monitor, the one lookup that cannot race
+                    // another session. onAdded runs under it too, so whatever it records sees IDs in order.
+                    Student student;
+                    synchronized (registry) {
+                        student = registry.register(row.firstName, row.lastName, row.email, row.emailKey);
+                        if (student != null) {
+                            onAdded.accept(student);
+                        }
+                    }
+                    if (student == null) {
+                        errors.add(new ImportError(rowNumber, "This email is already taken"));
+                        continue;
+                    }
+                    imported++;
+                }
+            }
+        }
+        return new Report(imported, errors);
+    }
+
+    // Returns null for rows that are skipped: blank lines and a leading header.
+    private static Row parse(String line, boolean firstLine) {
+        if (line.isBlank()) {
+            return null;
+        }
+        Row row = new Row();
+        String[] fields = line.split(",", -1);
+        if (fields.length != 3) {
+            row.error = "Incorrect credentials.";
+            return row;
+        }
+        String firstName = unquote(fields[0]);
+        String lastName = unquote(fields[1]);
+        String email = unquote(fields[2]);
+        if (firstLine && email.equalsIgnoreCase("email")) {
+            return null;
+        }
+        // The same shape 'add students' produces from one line of words.
+        if (containsWhitespace(firstName)) {
+            row.error = CredentialValidator.INCORRECT_FIRST_NAME;
+            return row;
+        }
+        if (containsWhitespace(email)) {
+            row.error = CredentialValidator.INCORRECT_EMAIL;
+            return row;
+        }
+        if (!CredentialValidator.isValidName(firstName)) {
+            row.error = CredentialValidator.INCORRECT_FIRST_NAME;
+        } else if (!CredentialValidator.isValidName(lastName, 0, lastName.length(), true)) {
+            row.error = CredentialValidator.INCORRECT_LAST_NAME;
+        } else if (!CredentialValidator.isValidEmail(email)) {
+            row.error = CredentialValidator.INCORRECT_EMAIL;
+        } else {
+            row.firstName = firstName;
+            row.lastName = CredentialValidator.joinWords(lastName, 0, lastName.length());
+            row.email = email;
+            row.emailKey = StudentRegistry.normalizeEmail(email);
+        }
+        return row;
+    }
+
+    private static String unquote(String field) {
+        String trimmed = field.trim();
+        if (trimmed.length() >= 2 && trimmed.charAt(0) == '"' && trimmed.charAt(trimmed.length() - 1) == '"') {
+            return trimmed.substring(1, trimmed.length() - 1).replace("\"\"", "\"").trim();
+        }
+        return trimmed;
+    }
+
+    private static boolean containsWhitespace(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (CredentialValidator.isWhitespace(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
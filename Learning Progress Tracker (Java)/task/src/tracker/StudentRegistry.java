@@ -0,0 +1,262 @@
+package tracker;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+// Registration is serialized; lookups are lock-free. A student becomes visible to findById and iteration
+// only through the volatile 'published' count, written after everything the student needs exists.
+// Point updates of one student are serialized by a striped lock; see lockFor.
+// Lock order: ranking, this registry's monitor, the student stripes, then a leaderboard's monitor.
+public class StudentRegistry implements Iterable<Student> {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final StudentIdAllocator idAllocator;
+    private final PointsMatrix points;
+    private final CourseLeaderboard[] leaderboards;
+    private final CompletionQueue completions;
+    private final ReentrantLock[] locks;
+    // Held for writing from suspendRanking to resumeRanking; board readers hold it for reading.
+    private final ReentrantReadWriteLock ranking = new ReentrantReadWriteLock();
+    private volatile Map<String, Student> studentsByEmail;
+    private volatile Student[] studentsBySlot;
+    private volatile int published;
+    private volatile boolean rankingSuspended;
+
+    public StudentRegistry() {
+        this(new StudentIdAllocator(), CourseCatalog.defaults().courses());
+    }
+
+    public StudentRegistry(StudentIdAllocator idAllocator, List<Course> courses) {
+        this.idAllocator = idAllocator;
+        points = new PointsMatrix(courses);
+        completions = new CompletionQueue(points);
+        leaderboards = new CourseLeaderboard[courses.size()];
+        for (int course = 0; course < leaderboards.length; course++) {
+            leaderboards[course] = new CourseLeaderboard(points, course);
+        }
+        studentsByEmail = new ConcurrentHashMap<>();
+        studentsBySlot = new Student[INITIAL_CAPACITY];
+        int stripes = Integer.highestOneBit(Math.max(64, Runtime.getRuntime().availableProcessors() * 16) - 1) << 1;
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Student register(String firstName, String lastName, String email) {
+        return register(firstName, lastName, email, normalizeEmail(email));
+    }
+
+    // For callers that already normalized the email, e.g. the bulk importer.
+    synchronized Student register(String firstName, String lastName, String email, String emailKey) {
+        if (studentsByEmail.containsKey(emailKey)) {
+            return null;
+        }
+        Student student = new Student(idAllocator.allocate(), firstName, lastName, email, this);
+        int slot = StudentIdAllocator.slotOf(student.getNumericID());
+        Student[] slots = studentsBySlot;
+        if (slot >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(slot + 1, slots.length * 2));
+            studentsBySlot = slots;
+        }
+        slots[slot] = student;
+        studentsByEmail.put(emailKey, student);
+        published = slot + 1;
+        return student;
+    }
+
+    // The lock that serializes point updates and enrollment changes of the student in this slot.
+    // Neighbouring slots map to different stripes.
+    public ReentrantLock lockFor(int slot) {
+        return locks[slot & (locks.length - 1)];
+    }
+
+    public interface ExclusiveAction<T> {
+        T run() throws IOException;
+    }
+
+    // Runs the action while no student can be registered or changed: registration waits on this registry's
+    // monitor, point updates and notifications on the student locks. Every journal record is written inside
+    // one of them, so the action also sees the journal at rest. It also waits out a suspended ranking, so the
+    // leaderboards it sees are in rank order.
+    public <T> T withWritersStopped(ExclusiveAction<T> action) throws IOException {
+        ranking.readLock().lock();
+        try {
+            synchronized (this) {
+                lockAll();
+                try {
+                    return action.run();
+                } finally {
+                    unlockAll();
+                }
+            }
+        } finally {
+            ranking.readLock().unlock();
+        }
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    public PointsMatrix getPoints() {
+        return points;
+    }
+
+    public CompletionQueue getCompletions() {
+        return completions;
+    }
+
+    public CourseLeaderboard getLeaderboard(Course course) {
+        return leaderboards[course.getOrdinal()];
+    }
+
+    // Visits a course's board like CourseLeaderboard.forEachAfter, waiting while ranking is suspended: the
+    // boards are ordered by live points, so until resumeRanking rebuilds them they are not in rank order.
+    public void forEachRankedAfter(Course course, int cursorSlot, IntPredicate visitor) {
+        ranking.readLock().lock();
+        try {
+            leaderboards[course.getOrdinal()].forEachAfter(cursorSlot, visitor);
+        } finally {
+            ranking.readLock().unlock();
+        }
+    }
+
+    // While suspended, point updates leave the leaderboards alone; resuming rebuilds every board from the
+    // enrolled students in one sort. Worth it when a batch touches a large share of the population.
+    // Both switches take every student lock, so no update is half-way through either side of them.
+    // The suspending thread must also resume; board readers and other suspensions wait until it does.
+    public void suspendRanking() {
+        ranking.writeLock().lock();
+        if (ranking.getWriteHoldCount() > 1) {
+            return;
+        }
+        lockAll();
+        try {
+            rankingSuspended = true;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public void resumeRanking() {
+        if (!ranking.isWriteLockedByCurrentThread()) {
+            return;
+        }
+        if (ranking.getWriteHoldCount() > 1) {
+            ranking.writeLock().unlock();
+            return;
+        }
+        lockAll();
+        try {
+            rankingSuspended = false;
+            int end = published;
+            int[] slots = new int[end];
+            for (int course = 0; course < leaderboards.length; course++) {
+                int count = 0;
+                for (int slot = 0; slot < end; slot++) {
+                    if (points.isEnrolled(slot, course)) {
+                        slots[count++] = slot;
+                    }
+                }
+                leaderboards[course].rebuild(slots, count);
+            }
+        } finally {
+            unlockAll();
+            ranking.writeLock().unlock();
+        }
+    }
+
+    boolean isRankingSuspended() {
+        return rankingSuspended;
+    }
+
+    // Sizes the indexes up front for a known number of students, e.g. before loading a snapshot.
+    public synchronized void reserve(int expectedStudents) {
+        if (expectedStudents > studentsBySlot.length) {
+            studentsBySlot = Arrays.copyOf(studentsBySlot, expectedStudents);
+        }
+        if (studentsByEmail.isEmpty()) {
+            studentsByEmail = new ConcurrentHashMap<>((int) (expectedStudents / 0.75f) + 1);
+        }
+        points.ensureCapacity(Math.max(0, expectedStudents - 1));
+    }
+
+    public Student findById(String id) {
+        return findById(StudentIdAllocator.parse(id));
+    }
+
+    public Student findById(int id) {
+        int slot = StudentIdAllocator.slotOf(id);
+        if (slot < 0 || slot >= published) {
+            return null;
+        }
+        return studentsBySlot[slot];
+    }
+
+    public boolean containsEmail(String email) {
+        return containsEmailKey(normalizeEmail(email));
+    }
+
+    boolean containsEmailKey(String emailKey) {
+        return studentsByEmail.containsKey(emailKey);
+    }
+
+    public int size() {
+        return studentsByEmail.size();
+    }
+
+    public boolean isEmpty() {
+        return published == 0;
+    }
+
+    @Override
+    public Iterator<Student> iterator() {
+        return stream().iterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Student> action) {
+        int end = published;
+        Student[] slots = studentsBySlot;
+        for (int slot = 0; slot < end; slot++) {
+            if (slots[slot] != null) {
+                action.accept(slots[slot]);
+            }
+        }
+    }
+
+    // Visits the slots of registered students from the given slot on, in ID order, until the visitor returns false.
+    public void forEachSlotFrom(int fromSlot, IntPredicate visitor) {
+        int end = published;
+        Student[] slots = studentsBySlot;
+        for (int slot = Math.max(0, fromSlot); slot < end; slot++) {
+            if (slots[slot] != null && !visitor.test(slot)) {
+                return;
+            }
+        }
+    }
+
+    public Stream<Student> stream() {
+        int end = published;
+        return Arrays.stream(studentsBySlot, 0, end).filter(Objects::nonNull);
+    }
+
+    static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,167 +1,246 @@
 package tracker;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static tracker.CoursesDataStore.*;
 
 public class Tracker {
-    private static final String nameRegex = "^(?<!['-])[a-zA-Z][a-zA-Z' -]+(?<!['-])$";
-    private static final String adjacentRegex = "^(?!.*['-]{2})[A-Za-z' -]+$";
-    private static final String emailRegex = "^[\\w.]+@\\w+\\.\\w+$";
+    private static final String EMPTY_COMMAND = "(empty)";
+    private static final String UNKNOWN_COMMAND = "(unknown)";
+    // A bare 'list' prints at most this many students; longer listings continue with 'list ... after <id>'.
+    private static final int LIST_PAGE_SIZE = 10_000;
+    // Interactive listings are flushed every this many rows, so a long page shows up while it is written.
+    private static final int LIST_FLUSH_ROWS = 1024;
+    // Course details are copied out of the leaderboard this many rows at a time.
+    private static final int DETAILS_PAGE_SIZE = 1024;
+    private static final String LIST_USAGE = "Usage: list [limit] [after <id>] [in <course>] [above <percent>]";
+    private static final String QUERY_USAGE =
+            "Usage: query [completed] <course> [and | or | and not | but not [completed] <course>]...";
+    private static final String WINDOW_USAGE =
+            "Usage: statistics window <duration>, from 1m to 90d, e.g. 15m, 1h, 1d or 1w";
 
     private final Map<String, Runnable> commandMap;
-    private final List<Student> students;
-    private final Scanner scanner;
+    private final Map<String, Consumer<String>> argumentCommandMap;
+    private final CourseCatalog catalog;
+    private final StudentRegistry students;
+    private final CourseStatistics statistics;
+    private final NotificationDispatcher notifications;
+    private final CommandMetrics metrics;
+    private final CommandSource in;
+    private final OutputSink out;
+    private CommandJournal journal;
+    // The last journal record this session's output acknowledges; the output is held back until it is durable.
+    private long unacknowledged;
+    private Path snapshotPath;
+    // Real path of the only directory imports may read from, when configured.
+    private Path importDirectory;
+    private CommandJournal.Position snapshotPosition;
+    private final boolean ownsResources;
     private boolean isGoing;
+    private boolean interactive = true;
+    private long linesRead;
+    // The sub-mode an interactive command left the session in; it takes every line until 'back'.
+    private LineHandler subMode;
+    private CommandMetrics.Command subModeMetrics;
+    private int addedStudentCount;
 
 
     public Tracker() {
+        this(CommandSource.forStandardInput(), new BufferedOutputSink(System.out));
+    }
+
+    public Tracker(CommandSource in, OutputSink out) {
+        this(in, out, NotificationDispatcher.synchronous(new ConsoleTransport(out)));
+    }
+
+    public Tracker(CommandSource in, OutputSink out, NotificationDispatcher notifications) {
+        this(in, out, notifications, CourseCatalog.defaults());
+    }
+
+    public Tracker(CommandSource in, OutputSink out, NotificationDispatcher notifications, CourseCatalog catalog) {
+        this(in, out, notifications, catalog, new StudentRegistry(new StudentIdAllocator(), catalog.courses()),
+                new CourseStatistics(catalog.courses()), new CommandMetrics(), true);
+    }
+
+    private Tracker(CommandSource in, OutputSink out, NotificationDispatcher notifications, CourseCatalog catalog,
+                    StudentRegistry students, CourseStatistics statistics, CommandMetrics metrics,
+                    boolean ownsResources) {
+        this.in = in;
+        this.out = out;
+        this.notifications = notifications;
+        this.catalog = catalog;
+        this.students = students;
+        this.statistics = statistics;
+        this.metrics = metrics;
+        this.ownsResources = ownsResources;
         isGoing = true;
-        scanner = new Scanner(System.in);
-        students = new ArrayList<>();
+        out.setWriteBarrier(this::awaitAcknowledged);
         commandMap = new HashMap<>();
         commandMap.put("exit", this::exit);
-        commandMap.put("start", this::start);
+        commandMap.put("start", () -> prompt("Learning Progress Tracker"));
         commandMap.put("back", () -> back(-1));
         commandMap.put("add students", this::addStudents);
-        commandMap.put("list", this::printStudents);
         commandMap.put("add points", this::addPointsToStudent);
         commandMap.put("find", this::findStudentAndPrintPoints);
         commandMap.put("statistics", this::showStatistics);
         commandMap.put("notify", this::notifyStudentsAndSendAcknowledge);
+        commandMap.put("snapshot", this::saveSnapshot);
+        commandMap.put("metrics", () -> metrics.printTo(out));
+        argumentCommandMap = new HashMap<>();
+        argumentCommandMap.put("import students", this::importStudents);
+        argumentCommandMap.put("import points", this::importPoints);
+        argumentCommandMap.put("list", this::printStudents);
+        argumentCommandMap.put("query", this::queryStudents);
+        argumentCommandMap.put("statistics window", this::showActivity);
+    }
+
+    // A session over the same students, journal and snapshot, with its own output and sub-mode. Lines are pushed
+    // in with accept(); 'exit' ends only the session, the shared resources stay with this tracker.
+    public Tracker session(OutputSink out, NotificationDispatcher notifications) {
+        Tracker session = new Tracker(null, out, notifications, catalog, students, statistics, metrics, false);
+        session.journal = journal;
+        session.snapshotPath = snapshotPath;
+        session.importDirectory = importDirectory;
+        return session;
     }
 
     private void notifyStudentsAndSendAcknowledge() {
-        Set<Student> notifiedStudents = new HashSet<>();
-        List<Course> courseList = Arrays.stream(values()).map(CoursesDataStore::getInstance).toList();
-        students.forEach(student -> {
-            courseList.forEach(course -> {
-                if(student.getPointsForCourse(course) == course.getTotalNumberOfPoints()) {
-                    notifyStudent(student, course);
-                    notifiedStudents.add(student);
-                    course.removeStudent(student);
-                    student.removeCourseFromEnrolledList(course);
+        TrackerEvents.NotifyEvent run = null;
+        if (TrackerEvents.isEnabled()) {
+            run = new TrackerEvents.NotifyEvent();
+            run.begin();
+        }
+        int notifiedStudents = 0;
+        int lastNotifiedSlot = -1;
+        List<Notification> completed = new ArrayList<>();
+        long[] completions = students.getCompletions().drain();
+        for (long event : completions) {
+            Student student = students.findById(StudentIdAllocator.idOf(CompletionQueue.slotOf(event)));
+            Course course = catalog.get(CompletionQueue.courseOf(event));
+            ReentrantLock lock = student.lock();
+            try {
+                if (student.getPointsForCourse(course) != course.getTotalNumberOfPoints()) {
+                    continue;
                 }
-            });
-        });
-        System.out.printf("Total %d students have been notified.%n", notifiedStudents.size());
+                course.removeStudent(student);
+                student.removeCourseFromEnrolledList(course);
+                journal(journal -> journal.appendCompletionNotified(student.getNumericID(), course.getOrdinal()));
+            } finally {
+                lock.unlock();
+            }
+            completed.add(Notification.courseCompleted(student, course));
+            if (student.getSlot() != lastNotifiedSlot) {
+                notifiedStudents++;
+                lastNotifiedSlot = student.getSlot();
+            }
+        }
+        // Students hear about a completion only once its record is durable, so a crash cannot repeat it.
+        acknowledgeJournaled();
+        awaitAcknowledged();
+        for (Notification notification : completed) {
+            notifications.submit(notification);
+        }
+        out.append("Total ").append(notifiedStudents).append(" students have been notified.").newLine();
+        if (run != null) {
+            run.completions = completions.length;
+            run.notifications = completed.size();
+            run.studentsNotified = notifiedStudents;
+            run.commit();
+        }
     }
 
-    private void notifyStudent(Student student, Course course) {
-        System.out.printf("To: %s%n", student.getEmail());
-        System.out.println("Re: Your Learning Progress");
-        System.out.printf("Hello, %s %s! You have accomplished our %s course!%n", student.getFirstName(), student.getLastName(), course.getName());
+    private void showStatistics() {
+        prompt("Type the name of a course to see details or 'back' to quit");
+
+        CourseStatistics.Summary summary = statistics.getSummary();
+        out.println("Most popular: " + summary.mostPopular());
+        out.println("Least popular: " + summary.leastPopular());
+        out.println("Highest activity: " + summary.highestActivity());
+        out.println("Lowest activity: " + summary.lowestActivity());
+        out.println("Easiest course: " + summary.easiestCourse());
+        out.println("Hardest course: " + summary.hardestCourse());
+        openSubMode("course details", this::showCourseDetails);
     }
 
-    private void showStatistics() {
-        System.out.println("Type the name of a course to see details or 'back' to quit");
-
-        List<Course> courseList = Arrays.stream(values()).map(CoursesDataStore::getInstance).toList();
-
-        String mostPopular = courseList.stream()
-                .filter(course -> course.getTotalEnrolledStudents() > 0)
-                .filter(course ->
-                        course.getTotalEnrolledStudents() == courseList.stream()
-                                .max(Comparator.comparingInt(Course::getTotalEnrolledStudents)).get().getTotalEnrolledStudents())
-                .map(Course::getName).collect(Collectors.joining(", "));
-
-        String leastPopular = courseList.stream()
-                .filter(course -> course.getTotalEnrolledStudents() > 0)
-                .filter(course ->
-                        course.getTotalEnrolledStudents() == courseList.stream()
-                                .min(Comparator.comparingInt(Course::getTotalEnrolledStudents)).get().getTotalEnrolledStudents())
-                .map(Course::getName).collect(Collectors.joining(", "));
-
-        String highestActivity = courseList.stream()
-                .filter(course -> course.getTotalNumberOfCompletedTasks() > 0)
-                .filter(course -> course.getTotalNumberOfCompletedTasks() == courseList.stream()
-                        .max(Comparator.comparingInt(Course::getTotalNumberOfCompletedTasks)).get().getTotalNumberOfCompletedTasks())
-                .map(Course::getName).collect(Collectors.joining(", "));
-
-        String lowestActivity = courseList.stream()
-                .filter(course -> course.getTotalNumberOfCompletedTasks() > 0)
-                .filter(course -> course.getTotalNumberOfCompletedTasks() == courseList.stream()
-                        .min(Comparator.comparingInt(Course::getTotalNumberOfCompletedTasks)).get().getTotalNumberOfCompletedTasks())
-                .map(Course::getName).collect(Collectors.joining(", "));
-
-        String easiestCourse = courseList.stream()
-                .filter(course -> course.getAveragePerAssignment() > 0)
-                .filter(course -> course.getAveragePerAssignment() == courseList.stream()
-                        .max(Comparator.comparingDouble(Course::getAveragePerAssignment)).get().getAveragePerAssignment())
-                .map(Course::getName).collect(Collectors.joining(", "));
-
-        String hardestCourse = courseList.stream()
-                .filter(course -> course.getAveragePerAssignment() > 0)
-                .filter(course -> course.getAveragePerAssignment() == courseList.stream()
-                        .min(Comparator.comparingDouble(Course::getAveragePerAssignment)).get().getAveragePerAssignment())
-                .map(Course::getName).collect(Collectors.joining(", "));
-
-        if (mostPopular.isEmpty()) mostPopular = "n/a";
-        if (leastPopular.isEmpty() || leastPopular.equals(mostPopular)) leastPopular = "n/a";
-
-        if (highestActivity.isEmpty()) highestActivity = "n/a";
-        if (lowestActivity.isEmpty() || lowestActivity.equals(highestActivity)) lowestActivity = "n/a";
-
-        if (easiestCourse.isEmpty()) easiestCourse = "n/a";
-        if (hardestCourse.isEmpty() || hardestCourse.equals(easiestCourse)) hardestCourse = "n/a";
-
-
-        System.out.println("Most popular: " + mostPopular);
-        System.out.println("Least popular: " + leastPopular);
-        System.out.println("Highest activity: " + highestActivity);
-        System.out.println("Lowest activity: " + lowestActivity);
-        System.out.println("Easiest course: " + easiestCourse);
-        System.out.println("Hardest course: " + hardestCourse);
-
-        boolean stopLoop = false;
-        while (!stopLoop) {
-            String input = scanner.nextLine();
-            if (input.equalsIgnoreCase("back")) {
-                stopLoop = true;
-                continue;
-            }
-
-            if (!validateInputInCourseNames(input)) {
-                System.out.println("Unknown course.");
-                continue;
-            }
-
-            Course courseInfo =
-                    Objects.requireNonNull(
-                                    Arrays.stream(values())
-                                            .filter(coursesDataStore ->
-                                                    coursesDataStore
-                                                            .getInstance()
-                                                            .getName()
-                                                            .equalsIgnoreCase(input)
-                                            )
-                                            .findFirst()
-                                            .orElse(null))
-                            .getInstance();
-
-
-            System.out.println(courseInfo.getName());
-            System.out.println("id\tpoints\tcompleted");
-            students.stream()
-                    .filter(student -> courseInfo.hasAlreadyEnrolled(student.getID()))
-                    .filter(student -> student.getPointsForCourse(courseInfo) > 0)
-                    .sorted((s1, s2) -> {
-                        if(s1.getPointsForCourse(courseInfo) > s2.getPointsForCourse(courseInfo)) {
-                            return -1;
-                        } else if (s1.getPointsForCourse(courseInfo) < s2.getPointsForCourse(courseInfo)) {
-                            return 1;
-                        } else {
-                            return s1.getID().compareTo(s2.getID());
-                        }
-                    } )
-                    .forEach(student -> {
-                        System.out.println(student.getID() + "\t" + student.getPointsForCourse(courseInfo) + "\t" + student.getCompletionPercentage(courseInfo) + "%");
-                    });
+    // Ranks the courses by submissions in a recent window, e.g. 'statistics window 1h', from their time buckets.
+    private void showActivity(String argument) {
+        long windowMillis = ActivityWindow.parseDuration(argument);
+        if (windowMillis == 0) {
+            out.println(WINDOW_USAGE);
+            return;
+        }
+        CourseStatistics.WindowSummary summary = statistics.getWindowSummary(windowMillis);
+        out.println("Activity in the last " + argument.toLowerCase(Locale.ROOT) + ":");
+        out.println("Highest activity: " + summary.highestActivity());
+        out.println("Lowest activity: " + summary.lowestActivity());
+        out.println("course\tsubmissions\tpoints");
+        for (CourseStatistics.CourseActivity activity : summary.ranking()) {
+            out.append(activity.course()).append('\t').append(activity.submissions()).append('\t')
+                    .append(activity.points()).newLine();
+        }
+    }
+
+    private boolean showCourseDetails(String input) {
+        if (input.equalsIgnoreCase("back")) {
+            subMode = null;
+            return true;
+        }
+
+        Course courseInfo = catalog.find(input);
+        if (courseInfo == null) {
+            out.println("Unknown course.");
+            return false;
+        }
+
+        TrackerEvents.CourseDetailsEvent event = null;
+        if (TrackerEvents.isEnabled()) {
+            event = new TrackerEvents.CourseDetailsEvent();
+            event.begin();
+        }
+        out.println(courseInfo.getName());
+        out.println("id\tpoints\tcompleted");
+        PointsMatrix points = students.getPoints();
+        int[] slots = new int[DETAILS_PAGE_SIZE];
+        int[] coursePoints = new int[DETAILS_PAGE_SIZE];
+        long rows = 0;
+        int cursor = -1;
+        while (true) {
+            int[] count = {0};
+            // The board is locked only while a page is copied: writing may wait for a slow peer, and updates to
+            // the course wait for the board.
+            students.forEachRankedAfter(courseInfo, cursor, slot -> {
+                slots[count[0]] = slot;
+                coursePoints[count[0]] = points.getPoints(slot, courseInfo.getOrdinal());
+                return ++count[0] < DETAILS_PAGE_SIZE;
+            });
+            for (int i = 0; i < count[0]; i++) {
+                out.append(StudentIdAllocator.idOf(slots[i])).append('\t').append(coursePoints[i]).append('\t')
+                        .append(Student.completionPercentage(coursePoints[i], courseInfo)).append('%').newLine();
+            }
+            rows += count[0];
+            if (count[0] < DETAILS_PAGE_SIZE) {
+                break;
+            }
+            cursor = slots[count[0] - 1];
+        }
+        if (event != null) {
+            event.course = courseInfo.getName();
+            event.rows = rows;
+            event.commit();
         }
+        return true;
     }
 
     private boolean isAllCoursesCountZeroBy(List<Course> courses, Predicate<Course> predicate) {
@@ -173,203 +252,837 @@ public class Tracker {
         return true;
     }
 
-    private boolean validateInputInCourseNames(String input) {
-        for (CoursesDataStore courseEnum : CoursesDataStore.values()) {
-            if (input.equalsIgnoreCase(courseEnum.getInstance().getName())) {
-                return true;
-            }
+    private void findStudentAndPrintPoints() {
+        prompt("Enter an id or 'back' to return:");
+        openSubMode("find line", this::findStudent);
+    }
+
+    private boolean findStudent(String id) {
+        if (id.equalsIgnoreCase("back")) {
+            subMode = null;
+            return true;
         }
-        return false;
+        Student student = students.findById(id);
+        if (student == null) {
+            out.append("No student is found for id=").append(id).append('.').newLine();
+            return false;
+        }
+
+        student.printPoints(out);
+        return true;
     }
 
-    private void findStudentAndPrintPoints() {
-        System.out.println("Enter an id or 'back' to return:");
-        boolean stop = false;
-        while (!stop) {
-            String id = scanner.nextLine();
-            if (id.equalsIgnoreCase("back")) {
-                stop = true;
-                continue;
-            }
-            Student student = students.stream()
-                    .filter(s -> s.getID().equals(id))
-                    .findFirst()
-                    .orElse(null);
-            if (student == null) {
-                System.out.printf("No student is found for id=%s.%n", id);
-                continue;
-            }
+    private void addPointsToStudent() {
+        prompt("Enter an id and points or 'back' to return:");
+        openSubMode("add points line", this::addPoints);
+    }
+
+    private boolean addPoints(String line) {
+        String input = line.trim();
+        if (input.equalsIgnoreCase("back")) {
+            subMode = null;
+            return true;
+        }
 
-            Objects.requireNonNull(student).printPoints();
+        String[] inputs = input.split("\\s+");
+
+        int[] points = parseAddPoints(inputs);
+        if (points == null) {
+            return false;
         }
 
+        Student student = students.findById(inputs[0]);
+        if (student == null) {
+            out.append("No student is found for id=").append(inputs[0]).append('.').newLine();
+            return false;
+        }
+
+        applyPoints(student, points, true);
+        acknowledgeJournaled();
+        out.println("Points updated.");
+        return true;
     }
 
-    private void addPointsToStudent() {
-        System.out.println("Enter an id and points or 'back' to return:");
-        boolean stop = false;
-        while (!stop) {
-            String input = scanner.nextLine().trim();
-            if (input.equalsIgnoreCase("back")) {
-                stop = true;
-                continue;
-            }
-
-            String[] inputs = input.split("\\s+");
-
-            if (!validateAddPoints(inputs)) {
-                continue;
-            }
-
-            Student student = students.stream()
-                    .filter(s -> s.getID().equals(inputs[0]))
-                    .findFirst()
-                    .orElse(null);
-            if (student == null) {
-                System.out.printf("No student is found for id=%s.%n", inputs[0]);
-                continue;
-            }
-
-            for (int i = 1; i < inputs.length; i++) {
-                if (inputs[i].matches("^[0-9]+$")) {
-                    int point = Integer.parseInt(inputs[i]);
-                    switch (i) {
-                        case 1 -> student.updatePoints(JAVA.getInstance(), point);
-                        case 2 -> student.updatePoints(DSA.getInstance(), point);
-                        case 3 -> student.updatePoints(DATABASE.getInstance(), point);
-                        case 4 -> student.updatePoints(SPRING.getInstance(), point);
-                    }
+    // One input line is applied atomically: a concurrent 'find' sees all of it or none of it. It is journaled
+    // under the same lock, so the journal orders it before any completion it causes. Replayed lines, which
+    // are not journaled again, are not counted as recent activity either.
+    private void applyPoints(Student student, int[] points, boolean journaled) {
+        TrackerEvents.PointsUpdateEvent event = null;
+        if (TrackerEvents.isEnabled()
+                && ThreadLocalRandom.current().nextInt(TrackerEvents.POINTS_SAMPLE_INTERVAL) == 0) {
+            event = new TrackerEvents.PointsUpdateEvent();
+            event.begin();
+        }
+        ReentrantLock lock = student.lock();
+        try {
+            for (int i = 0; i < points.length; i++) {
+                student.updatePoints(catalog.get(i), points[i], journaled);
+            }
+            if (journaled) {
+                journal(journal -> journal.appendPointsAdded(student.getNumericID(), points));
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (event != null) {
+            event.studentId = student.getNumericID();
+            for (int value : points) {
+                if (value > 0) {
+                    event.courses++;
+                    event.points += value;
                 }
             }
-            System.out.println("Points updated.");
+            event.sampleInterval = TrackerEvents.POINTS_SAMPLE_INTERVAL;
+            event.commit();
         }
-
     }
 
-    private boolean validateAddPoints(String[] inputs) {
-        if (inputs.length != 5) {
-            System.out.println("Incorrect points format.");
-            return false;
+    // Returns null, after saying so, unless every course has a count of points that fits an int.
+    private int[] parseAddPoints(String[] inputs) {
+        if (inputs.length != catalog.size() + 1) {
+            out.println("Incorrect points format.");
+            return null;
         }
 
+        int[] points = new int[inputs.length - 1];
         for (int i = 1; i < inputs.length; i++) {
             if (!inputs[i].matches("^[0-9]+$")) {
-                System.out.println("Incorrect points format.");
-                return false;
+                out.println("Incorrect points format.");
+                return null;
+            }
+            try {
+                points[i - 1] = Integer.parseInt(inputs[i]);
+            } catch (NumberFormatException e) {
+                out.println("Incorrect points format.");
+                return null;
             }
         }
 
-        if (students.stream().noneMatch(student -> student.getID().equals(inputs[0]))) {
-            System.out.printf("No student is found for id=%s.%n", inputs[0]);
-            return false;
+        return points;
+    }
+
+    // Lists student IDs in ID order, one page at a time: 'list [limit] [after <id>] [in <course>] [above <percent>]'.
+    // 'in' keeps students enrolled in the course, 'above' those whose completion is above the percentage in that
+    // course, or in any course without 'in'. A page that stops short says how to ask for the next one.
+    private void printStudents(String argument) {
+        String[] words = argument.isEmpty() ? new String[0] : argument.split("\\s+");
+        int limit = LIST_PAGE_SIZE;
+        int afterId = StudentIdAllocator.NO_ID;
+        Course course = null;
+        String above = null;
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i].toLowerCase(Locale.ROOT);
+            if (i == 0 && word.matches("\\d{1,9}")) {
+                limit = Integer.parseInt(word);
+                if (limit == 0) {
+                    out.println(LIST_USAGE);
+                    return;
+                }
+            } else if (word.equals("after") && i + 1 < words.length) {
+                afterId = StudentIdAllocator.parse(words[++i]);
+                if (afterId == StudentIdAllocator.NO_ID) {
+                    out.println(LIST_USAGE);
+                    return;
+                }
+            } else if (word.equals("in") && i + 1 < words.length) {
+                course = catalog.find(words[++i]);
+                if (course == null) {
+                    out.println("Unknown course.");
+                    return;
+                }
+            } else if (word.equals("above") && i + 1 < words.length && words[i + 1].matches("\\d{1,3}(\\.\\d+)?")) {
+                above = words[++i];
+            } else {
+                out.println(LIST_USAGE);
+                return;
+            }
         }
 
-        return true;
+        ListPage page = new ListPage(limit, studentFilter(course, above == null ? -1 : Double.parseDouble(above)));
+        int fromSlot = afterId == StudentIdAllocator.NO_ID ? 0 : StudentIdAllocator.slotOf(afterId) + 1;
+        students.forEachSlotFrom(fromSlot, page);
+        if (page.rows == 0) {
+            out.println("No students found");
+        } else if (page.more) {
+            out.append("More students follow; type 'list ").append(limit).append(" after ")
+                    .append(StudentIdAllocator.idOf(page.lastSlot));
+            if (course != null) {
+                out.append(" in ").append(course.getName());
+            }
+            if (above != null) {
+                out.append(" above ").append(above);
+            }
+            out.append("' for the next page.").newLine();
+        }
     }
 
-    private void printStudents() {
-        if (students.isEmpty()) {
-            System.out.println("No students found");
+    // Combines the courses' enrollment and completion bitmaps left to right, e.g.
+    // 'query Java and DSA but not Spring' or 'query completed Java or completed DSA'.
+    private void queryStudents(String argument) {
+        String[] words = argument.isEmpty() ? new String[0] : argument.split("\\s+");
+        StudentBitmap result = null;
+        int i = 0;
+        while (i < words.length) {
+            String operator = "and";
+            if (result != null) {
+                operator = words[i++].toLowerCase(Locale.ROOT);
+                if ((operator.equals("and") || operator.equals("but"))
+                        && i < words.length && words[i].equalsIgnoreCase("not")) {
+                    operator = "not";
+                    i++;
+                } else if (!operator.equals("and") && !operator.equals("or")) {
+                    out.println(QUERY_USAGE);
+                    return;
+                }
+            }
+            boolean completed = i < words.length && words[i].equalsIgnoreCase("completed");
+            if (completed) {
+                i++;
+            }
+            if (i >= words.length) {
+                out.println(QUERY_USAGE);
+                return;
+            }
+            Course course = catalog.find(words[i++]);
+            if (course == null) {
+                out.println("Unknown course.");
+                return;
+            }
+            StudentBitmap term = completed ? course.getCompletedStudents() : course.getEnrolledStudents();
+            if (result == null) {
+                result = term;
+            } else if (operator.equals("and")) {
+                result = result.and(term);
+            } else if (operator.equals("or")) {
+                result = result.or(term);
+            } else {
+                result = result.andNot(term);
+            }
+        }
+        if (result == null) {
+            out.println(QUERY_USAGE);
+            return;
+        }
+
+        ListPage page = new ListPage(LIST_PAGE_SIZE, slot -> true);
+        result.forEach(page);
+        if (page.rows == 0) {
+            out.println("No students found");
             return;
         }
-        System.out.println("Students:");
-        students.forEach(System.out::println);
+        out.append("Total ").append(result.cardinality()).append(" students match");
+        if (page.more) {
+            out.append("; the first ").append(page.rows).append(" are listed");
+        }
+        out.append('.').newLine();
+    }
 
+    private IntPredicate studentFilter(Course course, double above) {
+        PointsMatrix points = students.getPoints();
+        if (course != null) {
+            int ordinal = course.getOrdinal();
+            long total = course.getTotalNumberOfPoints();
+            return slot -> points.isEnrolled(slot, ordinal)
+                    && (above < 0 || points.getPoints(slot, ordinal) * 100.0 > above * total);
+        } else if (above >= 0) {
+            List<Course> courses = catalog.courses();
+            return slot -> {
+                for (Course any : courses) {
+                    int ordinal = any.getOrdinal();
+                    if (points.isEnrolled(slot, ordinal)
+                            && points.getPoints(slot, ordinal) * 100.0 > above * any.getTotalNumberOfPoints()) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+        return slot -> true;
+    }
+
+    // Writes the IDs of matching students as they are visited, stopping at the first match past the limit.
+    private final class ListPage implements IntPredicate {
+        private final int limit;
+        private final IntPredicate filter;
+        private int rows;
+        private int lastSlot = -1;
+        private boolean more;
+
+        private ListPage(int limit, IntPredicate filter) {
+            this.limit = limit;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean test(int slot) {
+            if (!filter.test(slot)) {
+                return true;
+            }
+            if (rows == limit) {
+                more = true;
+                return false;
+            }
+            if (rows == 0) {
+                out.println("Students:");
+            }
+            out.append(StudentIdAllocator.idOf(slot)).newLine();
+            rows++;
+            lastSlot = slot;
+            if (interactive && rows % LIST_FLUSH_ROWS == 0) {
+                out.flush();
+            }
+            return true;
+        }
     }
 
     private void back(int addedStudentsCount) {
         if (addedStudentsCount == -1) {
-            System.out.println("Enter 'exit' to exit the program.");
+            out.println("Enter 'exit' to exit the program.");
         } else {
-            System.out.printf("Total %d students have been added.%n", addedStudentsCount);
+            out.append("Total ").append(addedStudentsCount).append(" students have been added.").newLine();
         }
     }
 
     private void addStudents() {
-        System.out.println("Enter student credentials or 'back' to return:");
-        int addedStudentCount = 0;
-        boolean isAdding = true;
-        while (isAdding) {
-//            System.out.print("> ");
-            String input = scanner.nextLine().trim();
-            if (input.equalsIgnoreCase("back")) {
-                back(addedStudentCount);
-                isAdding = false;
-                continue;
-            } else if (input.isEmpty()) {
-                System.out.println("Incorrect credentials.");
-                continue;
-            }
+        prompt("Enter student credentials or 'back' to return:");
+        addedStudentCount = 0;
+        openSubMode("add students line", this::addStudent);
+    }
 
-            String[] words = input.split("\\s+");
-            if (words.length < 3) {
-                System.out.println("Incorrect credentials.");
-                continue;
-            }
+    private boolean addStudent(String line) {
+        String input = line.trim();
+        if (input.equalsIgnoreCase("back")) {
+            back(addedStudentCount);
+            subMode = null;
+            return true;
+        } else if (input.isEmpty()) {
+            out.println("Incorrect credentials.");
+            return false;
+        }
+        // Words are located in place: the first is the first name, the last is the email and
+        // everything in between, joined by single spaces, is the last name.
+        int firstNameEnd = 0;
+        while (firstNameEnd < input.length() && !CredentialValidator.isWhitespace(input.charAt(firstNameEnd))) {
+            firstNameEnd++;
+        }
+        int emailStart = input.length();
+        while (emailStart > firstNameEnd && !CredentialValidator.isWhitespace(input.charAt(emailStart - 1))) {
+            emailStart--;
+        }
+        int lastNameStart = firstNameEnd;
+        while (lastNameStart < emailStart && CredentialValidator.isWhitespace(input.charAt(lastNameStart))) {
+            lastNameStart++;
+        }
+        int lastNameEnd = emailStart;
+        while (lastNameEnd > lastNameStart && CredentialValidator.isWhitespace(input.charAt(lastNameEnd - 1))) {
+            lastNameEnd--;
+        }
+        if (lastNameStart == lastNameEnd) {
+            out.println("Incorrect credentials.");
+            return false;
+        }
 
-            String firstName = words[0];
-            String lastName = Stream.of(words)
-                    .skip(1)
-                    .limit(words.length - 2)
-                    .reduce("", (a, b) -> a + " " + b)
-                    .trim();
-            String email = words[words.length - 1];
+        if (!validateStudent(input, firstNameEnd, lastNameStart, lastNameEnd, emailStart)) {
+            return false;
+        }
 
+        String email = input.substring(emailStart);
+        if (isStudentWithGivenEmailPresent(email)) {
+            out.println("This email is already taken");
+            return false;
+        }
 
-            if (!validateStudent(firstName, lastName, email)) {
-                continue;
-            }
+        Student student = register(input.substring(0, firstNameEnd),
+                CredentialValidator.joinWords(input, lastNameStart, lastNameEnd), email);
+        if (student == null) {
+            out.println("This email is already taken");
+            return false;
+        }
+        acknowledgeJournaled();
+        addedStudentCount++;
+        out.println("The student has been added.");
+        return true;
+    }
 
-            if (isStudentWithGivenEmailPresent(email)) {
-                System.out.println("This email is already taken");
-                continue;
+    // Registers already validated credentials and returns once their journal record is durable.
+    // Returns null when the email is taken.
+    public Student registerStudent(String firstName, String lastName, String email) {
+        Student student = register(firstName, lastName, email);
+        awaitJournal();
+        return student;
+    }
+
+    // Registration and its journal record happen under the registry's monitor, so the journal lists
+    // students in ID order even when several sessions add them at once.
+    private Student register(String firstName, String lastName, String email) {
+        synchronized (students) {
+            Student student = students.register(firstName, lastName, email);
+            if (student != null) {
+                journal(journal -> journal.appendStudentAdded(student));
             }
+            return student;
+        }
+    }
 
-            Student student = new Student(firstName, lastName, email);
-            students.add(student);
-            addedStudentCount++;
-            System.out.println("The student has been added.");
+    // Adds one line of points, one value per catalog course, as 'add points' does, and returns once the
+    // journal record is durable.
+    public void addPoints(Student student, int[] points) {
+        if (points.length != catalog.size()) {
+            throw new IllegalArgumentException("Expected points for " + catalog.size() + " courses");
         }
+        applyPoints(student, points, true);
+        awaitJournal();
+    }
+
+    public StudentRegistry getStudents() {
+        return students;
+    }
+
+    public CourseCatalog getCatalog() {
+        return catalog;
+    }
 
+    public CourseStatistics getStatistics() {
+        return statistics;
     }
 
-    private boolean validateStudent(String firstName, String lastName, String email) {
-        if (firstName.length() < 2 || !firstName.matches(nameRegex) || !firstName.matches(adjacentRegex)) {
-            System.out.println("Incorrect first name.");
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    private boolean validateStudent(String input, int firstNameEnd, int lastNameStart, int lastNameEnd, int emailStart) {
+        if (!CredentialValidator.isValidName(input, 0, firstNameEnd, false)) {
+            out.println(CredentialValidator.INCORRECT_FIRST_NAME);
             return false;
-        } else if (lastName.length() < 2 || !lastName.matches(nameRegex) || !lastName.matches(adjacentRegex)) {
-            System.out.println("Incorrect last name.");
+        } else if (!CredentialValidator.isValidName(input, lastNameStart, lastNameEnd, true)) {
+            out.println(CredentialValidator.INCORRECT_LAST_NAME);
             return false;
-        } else if (!email.matches(emailRegex)) {
-            System.out.println("Incorrect email.");
+        } else if (!CredentialValidator.isValidEmail(input, emailStart, input.length())) {
+            out.println(CredentialValidator.INCORRECT_EMAIL);
             return false;
         }
         return true;
     }
 
+    private void importStudents(String argument) {
+        if (argument.isEmpty()) {
+            out.println("Usage: import students <path>");
+            return;
+        }
+        Path path = importPath(argument);
+        if (path == null) {
+            return;
+        }
+        TrackerEvents.ImportEvent event = beginImportEvent("students", path);
+        StudentImporter.Report report;
+        try {
+            report = new StudentImporter(students,
+                    student -> journal(journal -> journal.appendStudentAdded(student))).importFrom(path);
+        } catch (IOException | UncheckedIOException e) {
+            out.println("Import failed: " + e.getMessage());
+            return;
+        } finally {
+            acknowledgeJournaled();
+        }
+        out.append("Total ").append(report.imported()).append(" students have been imported, ")
+                .append(report.errors().size()).append(" rows rejected.").newLine();
+        writeErrorReport(path, report.errors());
+        commitImportEvent(event, report.imported(), report.errors().size());
+    }
+
+    private void importPoints(String argument) {
+        if (argument.isEmpty()) {
+            out.println("Usage: import points <path>");
+            return;
+        }
+        Path path = importPath(argument);
+        if (path == null) {
+            return;
+        }
+        TrackerEvents.ImportEvent event = beginImportEvent("points", path);
+        PointsImporter.Report report;
+        try {
+            report = new PointsImporter(students, (student, points) -> applyPoints(student, points, true))
+                    .importFrom(path);
+        } catch (IOException | UncheckedIOException e) {
+            out.println("Import failed: " + e.getMessage());
+            return;
+        } finally {
+            acknowledgeJournaled();
+        }
+        out.append("Total ").append(report.applied()).append(" points records have been imported, ")
+                .append(report.errors().size()).append(" lines rejected.").newLine();
+        writeErrorReport(path, report.errors());
+        commitImportEvent(event, report.applied(), report.errors().size());
+    }
+
+    // Confines imports, and so their error reports, to files under directory. Sessions opened afterwards share
+    // it; without one they cannot import at all, only the console, which reads whatever path it is given, can.
+    public void setImportDirectory(Path directory) throws IOException {
+        importDirectory = directory.toRealPath();
+    }
+
+    // Returns null, having answered why, when the argument names no file this session may import.
+    private Path importPath(String argument) {
+        if (importDirectory == null) {
+            if (!ownsResources) {
+                out.println("Imports are not configured.");
+                return null;
+            }
+            return Path.of(argument);
+        }
+        Path path;
+        try {
+            // Links are resolved first, so neither '..' nor a link inside the directory leads out of it.
+            path = importDirectory.resolve(argument).toRealPath();
+        } catch (IOException | InvalidPathException e) {
+            out.println("Import failed: " + e.getMessage());
+            return null;
+        }
+        if (!path.startsWith(importDirectory)) {
+            out.println("Imports are limited to " + importDirectory + ".");
+            return null;
+        }
+        return path;
+    }
+
+    private static TrackerEvents.ImportEvent beginImportEvent(String kind, Path path) {
+        if (!TrackerEvents.isEnabled()) {
+            return null;
+        }
+        TrackerEvents.ImportEvent event = new TrackerEvents.ImportEvent();
+        event.kind = kind;
+        event.path = path.toString();
+        event.begin();
+        return event;
+    }
+
+    private static void commitImportEvent(TrackerEvents.ImportEvent event, long accepted, long rejected) {
+        if (event != null) {
+            event.lines = accepted + rejected;
+            event.rejected = rejected;
+            event.commit();
+        }
+    }
+
+    private void writeErrorReport(Path imported, List<ImportError> errors) {
+        if (errors.isEmpty()) {
+            return;
+        }
+        Path errorReport = imported.resolveSibling(imported.getFileName() + ".errors");
+        // A link in the report's place is not followed: the report never lands outside the import's directory.
+        try (OutputStream stream = Files.newOutputStream(errorReport, LinkOption.NOFOLLOW_LINKS,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputSink report = new BufferedOutputSink(stream);
+            for (ImportError error : errors) {
+                report.append(error.line()).append('\t').append(error.message()).newLine();
+            }
+            report.flush();
+        } catch (IOException e) {
+            out.println("Cannot write the error report: " + e.getMessage());
+            return;
+        }
+        out.println("Rejected lines are listed in " + errorReport);
+    }
+
     private boolean isStudentWithGivenEmailPresent(String email) {
-        return students.stream().anyMatch(student -> student.getEmail().equals(email));
+        return students.containsEmail(email);
+    }
+
+    public NotificationDispatcher getNotifications() {
+        return notifications;
+    }
+
+    // Restores state from an existing snapshot; must be called before openJournal.
+    public void openSnapshot(Path path) throws IOException {
+        snapshotPath = path;
+        if (Files.exists(path)) {
+            snapshotPosition = SnapshotFile.read(path, students);
+        }
+    }
+
+    private void saveSnapshot() {
+        if (snapshotPath == null) {
+            out.println("Snapshots are not configured.");
+            return;
+        }
+        // Sessions, the HTTP API and the console all write concurrently. They are held off from taking the
+        // journal position until the reset, so the image is exactly the journal up to that position and the
+        // reset drops nothing the image lacks.
+        try {
+            int saved = students.withWritersStopped(() -> {
+                CommandJournal.Position position = journal == null
+                        ? new CommandJournal.Position(0, 0) : journal.position();
+                int written = SnapshotFile.write(snapshotPath, students, position);
+                if (journal != null) {
+                    journal.reset();
+                }
+                return written;
+            });
+            out.append("Snapshot of ").append(saved).append(" students has been saved.").newLine();
+        } catch (IOException e) {
+            out.println("Snapshot failed: " + e.getMessage());
+        }
+    }
+
+    // Rebuilds state from an existing journal, then records every later change in it.
+    public void openJournal(Path path, CommandJournal.FsyncPolicy policy, long groupCommitMillis) throws IOException {
+        journal = CommandJournal.open(path, policy, groupCommitMillis, snapshotPosition, new CommandJournal.Replayer() {
+            @Override
+            public void studentAdded(int id, String firstName, String lastName, String email) {
+                Student student = students.register(firstName, lastName, email);
+                if (student == null || student.getNumericID() != id) {
+                    throw new IllegalStateException("Student " + id + " cannot be restored in journal order");
+                }
+            }
+
+            @Override
+            public void pointsAdded(int id, int[] points) {
+                if (points.length != catalog.size()) {
+                    throw new IllegalStateException("Journal has points for " + points.length
+                            + " courses, the catalog has " + catalog.size());
+                }
+                applyPoints(Objects.requireNonNull(students.findById(id), "Unknown student " + id), points, false);
+            }
+
+            @Override
+            public void completionNotified(int id, int course) {
+                Student student = Objects.requireNonNull(students.findById(id), "Unknown student " + id);
+                Course notifiedCourse = catalog.get(course);
+                notifiedCourse.removeStudent(student);
+                student.removeCourseFromEnrolledList(notifiedCourse);
+            }
+        });
+    }
+
+    private void journal(JournalWrite write) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            write.appendTo(journal);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to the journal", e);
+        }
+    }
+
+    private interface JournalWrite {
+        void appendTo(CommandJournal journal) throws IOException;
+    }
+
+    // Called on the session's thread after a command journaled changes it is about to acknowledge.
+    private void acknowledgeJournaled() {
+        if (journal != null) {
+            unacknowledged = journal.appendedSequence();
+        }
+    }
+
+    // The output's write barrier: answers leave only after the records they acknowledge are durable, so a
+    // pipelined or batch run waits once per flush, not once per line.
+    private void awaitAcknowledged() {
+        if (unacknowledged > 0) {
+            long sequence = unacknowledged;
+            unacknowledged = 0;
+            awaitDurable(sequence);
+        }
+    }
+
+    // For callers outside a session, e.g. the HTTP API: waits for everything journaled so far, their own
+    // records included.
+    private void awaitJournal() {
+        if (journal != null) {
+            awaitDurable(journal.appendedSequence());
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        try {
+            journal.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to the journal", e);
+        }
     }
 
     private void exit() {
+        if (ownsResources) {
+            shutdown();
+        } else {
+            isGoing = false;
+        }
+        out.println("Bye!");
+        out.flush();
+    }
+
+    // Closes the notification dispatcher and the journal. Sessions share them and leave them open.
+    public void shutdown() {
         isGoing = false;
-        System.out.println("Bye!");
+        if (!ownsResources) {
+            return;
+        }
+        notifications.close();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Cannot close the journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private void prompt(String text) {
+        if (interactive) {
+            out.println(text);
+        }
+    }
+
+    private String readLine() {
+        if (interactive) {
+            out.flush();
+        }
+        String line = in.readLine();
+        if (line != null) {
+            linesRead++;
+        }
+        return line;
     }
 
     public void start() {
         isGoing = true;
-        System.out.println("Learning Progress Tracker");
+        prompt("Learning Progress Tracker");
         while (isGoing) {
-//            System.out.print("> ");
-            String command = scanner.nextLine().trim().toLowerCase();
+            String line = readLine();
+            if (line == null) {
+                // Running out of input ends the session the same way as 'exit', just without the farewell.
+                shutdown();
+                out.flush();
+                return;
+            }
+            accept(line);
+        }
+    }
 
-            if (command.isEmpty()) {
-                System.out.println("No input!");
-            } else if (!commandMap.containsKey(command)) {
-                System.out.println("Error: unknown command!");
-            } else {
-                commandMap.get(command).run();
+    // Handles one input line: a command from the main menu, or a line for the sub-mode the last command opened.
+    public void accept(String line) {
+        TrackerEvents.CommandEvent event = null;
+        if (TrackerEvents.isEnabled()) {
+            event = new TrackerEvents.CommandEvent();
+            event.begin();
+        }
+        boolean timed = metrics.isEnabled();
+        long started = timed ? System.nanoTime() : 0;
+        CommandMetrics.Command command;
+        boolean accepted;
+        if (subMode != null) {
+            command = subModeMetrics;
+            accepted = subMode.handle(line);
+        } else {
+            String name = execute(line.trim());
+            command = metrics.command(name);
+            accepted = !name.equals(EMPTY_COMMAND) && !name.equals(UNKNOWN_COMMAND);
+        }
+        if (timed) {
+            command.record(System.nanoTime() - started, accepted);
+        }
+        if (event != null) {
+            event.command = command.getName();
+            event.accepted = accepted;
+            event.students = students.size();
+            event.commit();
+        }
+    }
+
+    // Handles the lines of a sub-mode and tells whether each was accepted.
+    private interface LineHandler {
+        boolean handle(String line);
+    }
+
+    private void openSubMode(String metricsName, LineHandler handler) {
+        subModeMetrics = metrics.command(metricsName);
+        subMode = handler;
+    }
+
+    public boolean isGoing() {
+        return isGoing;
+    }
+
+    // Runs the whole input as a script: no prompts, output is only flushed when the buffer fills or at the end.
+    // A command is charged for its own line and every line of the sub-mode it opened.
+    public BatchReport runBatch() {
+        BatchReport report = new BatchReport();
+        interactive = false;
+        isGoing = true;
+        long started = System.nanoTime();
+        String command = null;
+        long commandLines = 0;
+        long commandNanos = 0;
+        while (isGoing) {
+            String line = readLine();
+            if (line == null) {
+                shutdown();
+                break;
+            }
+            if (subMode == null) {
+                if (command != null) {
+                    report.record(command, commandLines, commandNanos);
+                }
+                command = commandName(line.trim());
+                commandLines = 0;
+                commandNanos = 0;
+            }
+            long lineStarted = System.nanoTime();
+            try {
+                accept(line);
+            } finally {
+                commandLines++;
+                commandNanos += System.nanoTime() - lineStarted;
+            }
+        }
+        if (command != null) {
+            report.record(command, commandLines, commandNanos);
+        }
+        out.flush();
+        report.finish(linesRead, System.nanoTime() - started);
+        return report;
+    }
+
+    // Runs a main-menu command and returns the name it is counted under.
+    private String execute(String line) {
+        String command = line.toLowerCase();
+        if (command.isEmpty()) {
+            out.println("No input!");
+            return EMPTY_COMMAND;
+        } else if (commandMap.containsKey(command)) {
+            commandMap.get(command).run();
+            return command;
+        }
+        String name = argumentCommandName(command);
+        if (name == null) {
+            out.println("Error: unknown command!");
+            return UNKNOWN_COMMAND;
+        }
+        argumentCommandMap.get(name).accept(line.substring(name.length()).trim());
+        return name;
+    }
+
+    // Commands like 'import students <path>' take the rest of the line, in its original case, as an argument.
+    private String argumentCommandName(String command) {
+        for (String name : argumentCommandMap.keySet()) {
+            if (command.startsWith(name)
+                    && (command.length() == name.length() || Character.isWhitespace(command.charAt(name.length())))) {
+                return name;
             }
         }
+        return null;
+    }
+
+    private String commandName(String line) {
+        String command = line.toLowerCase();
+        if (command.isEmpty()) {
+            return EMPTY_COMMAND;
+        } else if (commandMap.containsKey(command)) {
+            return command;
+        }
+        String name = argumentCommandName(command);
+        return name == null ? UNKNOWN_COMMAND : name;
     }
 }
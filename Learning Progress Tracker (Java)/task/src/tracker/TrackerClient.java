@@ -0,0 +1,83 @@
+package tracker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+// A blocking client for TrackerServer. send() writes any number of lines in one go, so requests can be
+// pipelined and their answers read back afterwards in order.
+public class TrackerClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final ChannelCommandSource responses;
+
+    private TrackerClient(SocketChannel channel) {
+        this.channel = channel;
+        responses = new ChannelCommandSource(channel, 8 * 1024);
+    }
+
+    public static TrackerClient connect(InetSocketAddress address) throws IOException {
+        return new TrackerClient(SocketChannel.open(address));
+    }
+
+    public void send(String... lines) throws IOException {
+        StringBuilder request = new StringBuilder();
+        for (String line : lines) {
+            request.append(line).append('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(request.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    // Returns null once the server has closed the connection.
+    public String readLine() throws IOException {
+        try {
+            return responses.readLine();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Stops sending; answers that are still on their way can be read until readLine() returns null.
+    public void finishSending() throws IOException {
+        channel.shutdownOutput();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Usage: TrackerClient <host> <port>. Forwards standard input and prints the answers.
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 2) {
+            System.err.println("Usage: TrackerClient <host> <port>");
+            System.exit(2);
+        }
+        try (TrackerClient client = connect(new InetSocketAddress(args[0], Integer.parseInt(args[1])))) {
+            OutputSink out = new BufferedOutputSink(System.out);
+            Thread printer = new Thread(() -> {
+                try {
+                    String line;
+                    while ((line = client.readLine()) != null) {
+                        out.println(line).flush();
+                    }
+                } catch (IOException e) {
+                    System.err.println("Connection lost: " + e.getMessage());
+                }
+            }, "tracker-client-printer");
+            printer.start();
+            CommandSource in = CommandSource.forStandardInput();
+            String line;
+            while ((line = in.readLine()) != null) {
+                client.send(line);
+            }
+            client.finishSending();
+            printer.join();
+        }
+    }
+}
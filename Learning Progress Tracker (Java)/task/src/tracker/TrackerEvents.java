@@ -0,0 +1,143 @@
+package tracker;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.List;
+
+// Java Flight Recorder events for tracker work, so slow commands can be lined up with GC and I/O in the
+// same recording. They are off unless enabled at startup (--jfr-events or --jfr <file>): until then each
+// instrumented spot costs one read of a static flag and nothing is allocated.
+public final class TrackerEvents {
+    private static final String CATEGORY = "Learning Progress Tracker";
+    // One points update in this many is recorded.
+    public static final int POINTS_SAMPLE_INTERVAL = 64;
+
+    private static volatile boolean enabled;
+
+    private TrackerEvents() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        if (enabled) {
+            for (Class<? extends Event> type : List.of(CommandEvent.class, PointsUpdateEvent.class,
+                    StatisticsEvent.class, CourseDetailsEvent.class, NotifyEvent.class, ImportEvent.class)) {
+                FlightRecorder.register(type);
+            }
+        }
+        TrackerEvents.enabled = enabled;
+    }
+
+    @Name("tracker.Command")
+    @Label("Tracker Command")
+    @Description("One input line handled by a tracker session")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class CommandEvent extends Event {
+        @Label("Command")
+        @Description("The main-menu command, or the sub-mode the line was for")
+        String command;
+
+        @Label("Accepted")
+        boolean accepted;
+
+        @Label("Students")
+        int students;
+    }
+
+    @Name("tracker.PointsUpdate")
+    @Label("Points Update")
+    @Description("One line of points applied to a student, sampled")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class PointsUpdateEvent extends Event {
+        @Label("Student Id")
+        int studentId;
+
+        @Label("Courses")
+        @Description("Courses the line gave points to")
+        int courses;
+
+        @Label("Points")
+        long points;
+
+        @Label("Sample Interval")
+        @Description("One update in this many is recorded")
+        int sampleInterval;
+    }
+
+    @Name("tracker.Statistics")
+    @Label("Statistics Summary")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class StatisticsEvent extends Event {
+        @Label("Courses")
+        int courses;
+
+        @Label("Recomputed")
+        @Description("False when the cached summary was still current")
+        boolean recomputed;
+
+        @Label("Attempts")
+        @Description("Optimistic passes made before the summary was consistent")
+        int attempts;
+
+        @Label("Updates Paused")
+        boolean updatesPaused;
+    }
+
+    @Name("tracker.CourseDetails")
+    @Label("Course Details")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class CourseDetailsEvent extends Event {
+        @Label("Course")
+        String course;
+
+        @Label("Rows Output")
+        long rows;
+    }
+
+    @Name("tracker.Notify")
+    @Label("Notify")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class NotifyEvent extends Event {
+        @Label("Completions")
+        @Description("Course completions drained from the queue")
+        int completions;
+
+        @Label("Notifications Sent")
+        int notifications;
+
+        @Label("Students Notified")
+        int studentsNotified;
+    }
+
+    @Name("tracker.Import")
+    @Label("Import")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class ImportEvent extends Event {
+        @Label("Kind")
+        String kind;
+
+        @Label("Path")
+        String path;
+
+        @Label("Lines Processed")
+        long lines;
+
+        @Label("Rows Rejected")
+        long rejected;
+    }
+}
@@ -0,0 +1,499 @@
+package tracker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Serves the console protocol over TCP. Every connection gets its own Tracker session, and with it its own
+// sub-mode, while all sessions share one set of students. A few event loops, each with its own Selector,
+// multiplex the connections. Requests may be pipelined: every complete line of a read is handled in order
+// and the answers go out together. A connection is not read again until its answers have been written.
+// The lines themselves run on a pool of worker threads, one read's worth of a connection at a time, so an
+// import, a snapshot or a wait for the journal holds up that connection only and never an event loop. A session
+// whose answers pile up faster than its peer reads them is held at the pending output limit until they drain.
+public class TrackerServer implements AutoCloseable {
+    public static final int DEFAULT_BACKLOG = 1024;
+    public static final int DEFAULT_MAX_LINE_LENGTH = 64 * 1024;
+    // Most of a worker's time goes to waiting for the journal, so there are more of them than processors.
+    public static final int DEFAULT_WORKER_THREADS = 32;
+    public static final int DEFAULT_MAX_PENDING_OUTPUT = 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    private static final int OUTPUT_BUFFER_SIZE = 8 * 1024;
+
+    private final ServerSocketChannel server;
+    private final Function<OutputSink, Tracker> sessions;
+    private final EventLoop[] loops;
+    private final ExecutorService workers;
+    private final int maxPendingOutput;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final LongAdder acceptedConnections = new LongAdder();
+    private final LongAdder linesHandled = new LongAdder();
+    private volatile boolean closed;
+
+    public TrackerServer(InetSocketAddress address, int eventLoops, Function<OutputSink, Tracker> sessions)
+            throws IOException {
+        this(address, eventLoops, DEFAULT_WORKER_THREADS, DEFAULT_MAX_PENDING_OUTPUT, sessions);
+    }
+
+    // The factory is called on an event loop thread for each new connection, with the sink the session
+    // must write its answers to.
+    public TrackerServer(InetSocketAddress address, int eventLoops, int workerThreads, int maxPendingOutput,
+                         Function<OutputSink, Tracker> sessions) throws IOException {
+        this.sessions = sessions;
+        this.maxPendingOutput = maxPendingOutput;
+        AtomicInteger nextWorker = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, workerThreads), task -> {
+            Thread worker = new Thread(task, "tracker-worker-" + nextWorker.getAndIncrement());
+            worker.setDaemon(true);
+            return worker;
+        });
+        server = ServerSocketChannel.open();
+        server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        server.bind(address, DEFAULT_BACKLOG);
+        server.configureBlocking(false);
+        loops = new EventLoop[Math.max(1, eventLoops)];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop(i);
+        }
+        server.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public TrackerServer start() {
+        for (EventLoop loop : loops) {
+            loop.thread.start();
+        }
+        return this;
+    }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public long getAcceptedConnections() {
+        return acceptedConnections.sum();
+    }
+
+    public long getLinesHandled() {
+        return linesHandled.sum();
+    }
+
+    // Blocks until the server is closed.
+    public void awaitTermination() throws InterruptedException {
+        for (EventLoop loop : loops) {
+            loop.thread.join();
+        }
+    }
+
+    // Drops every connection and waits for the lines already being handled. The sessions' shared state is left
+    // to the caller.
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        for (EventLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+        try {
+            awaitTermination();
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server.close();
+    }
+
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<SocketChannel> adopted = new ConcurrentLinkedQueue<>();
+        // Work handed back by the worker threads: connections to write out and resume reading.
+        private final Queue<Connection> resumed = new ConcurrentLinkedQueue<>();
+
+        EventLoop(int index) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, "tracker-server-" + index);
+        }
+
+        void adopt(SocketChannel channel) {
+            adopted.add(channel);
+            selector.wakeup();
+        }
+
+        void resume(Connection connection) {
+            resumed.add(connection);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    selector.select();
+                    registerAdopted();
+                    Connection connection;
+                    while ((connection = resumed.poll()) != null) {
+                        connection.write();
+                    }
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            ((Connection) key.attachment()).handle(key);
+                        }
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (!closed) {
+                    System.err.println("Tracker server loop failed: " + e.getMessage());
+                }
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection connection) {
+                        connection.close();
+                    }
+                }
+                SocketChannel channel;
+                while ((channel = adopted.poll()) != null) {
+                    closeQuietly(channel);
+                }
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // Nothing is left to release.
+                }
+            }
+        }
+
+        // A failed accept, e.g. when the process runs out of file descriptors, drops that connection only.
+        private void accept() {
+            while (true) {
+                SocketChannel channel = null;
+                try {
+                    channel = server.accept();
+                    if (channel == null) {
+                        return;
+                    }
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                } catch (IOException e) {
+                    System.err.println("Cannot accept a tracker connection: " + e.getMessage());
+                    if (channel != null) {
+                        closeQuietly(channel);
+                    }
+                    return;
+                }
+                acceptedConnections.increment();
+                EventLoop loop = loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)];
+                if (loop == this) {
+                    register(channel);
+                } else {
+                    loop.adopt(channel);
+                }
+            }
+        }
+
+        private void registerAdopted() {
+            SocketChannel channel;
+            while ((channel = adopted.poll()) != null) {
+                register(channel);
+            }
+        }
+
+        private void register(SocketChannel channel) {
+            try {
+                Connection connection = new Connection(this, channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                openConnections.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Cannot open a tracker session: " + e.getMessage());
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    // Reads and writes happen on the event loop, the lines on a worker. While a worker has the session the
+    // connection is not read, and its key only asks to be written to when the worker waits for output to drain.
+    private final class Connection {
+        private final EventLoop loop;
+        private final SocketChannel channel;
+        private final PendingOutput pending = new PendingOutput(maxPendingOutput, this::requestWrite);
+        private final OutputSink out = new BufferedOutputSink(pending, OUTPUT_BUFFER_SIZE);
+        private final Tracker session;
+        private SelectionKey key;
+        private byte[] input = new byte[READ_BUFFER_SIZE];
+        private ByteBuffer inputView = ByteBuffer.wrap(input);
+        private int position;
+        private int limit;
+        private boolean endOfInput;
+        private boolean closing;
+        // Guarded by this: whether a worker has the session, and whether the connection was closed meanwhile,
+        // in which case the worker ends the session once it is done with it.
+        private boolean working;
+        private boolean closed;
+
+        Connection(EventLoop loop, SocketChannel channel) {
+            this.loop = loop;
+            this.channel = channel;
+            session = sessions.apply(out);
+        }
+
+        void handle(SelectionKey key) {
+            try {
+                if (key.isReadable()) {
+                    read();
+                    key.interestOps(0);
+                    startWork();
+                } else if (key.isWritable()) {
+                    write();
+                }
+            } catch (IOException | RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        private synchronized void startWork() {
+            working = true;
+            workers.execute(this::work);
+        }
+
+        // Runs on a worker.
+        private void work() {
+            try {
+                handleLines();
+                out.flush();
+            } catch (UncheckedIOException e) {
+                // Closed while waiting for its output to drain.
+                closing = true;
+            } catch (RuntimeException e) {
+                System.err.println("Tracker session failed: " + e);
+                closing = true;
+            }
+            boolean closedMeanwhile;
+            synchronized (this) {
+                working = false;
+                closedMeanwhile = closed;
+            }
+            if (closedMeanwhile) {
+                session.shutdown();
+            } else {
+                loop.resume(this);
+            }
+        }
+
+        // Called on a worker whose output is over the limit.
+        private void requestWrite() {
+            loop.resume(this);
+        }
+
+        private void read() throws IOException {
+            if (limit == input.length) {
+                if (position > 0) {
+                    System.arraycopy(input, position, input, 0, limit - position);
+                    limit -= position;
+                    position = 0;
+                } else {
+                    input = Arrays.copyOf(input, input.length * 2);
+                    inputView = ByteBuffer.wrap(input);
+                }
+            }
+            inputView.limit(input.length).position(limit);
+            int read = channel.read(inputView);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                limit += read;
+            }
+        }
+
+        private void handleLines() {
+            int scanFrom = position;
+            while (!closing) {
+                int end = -1;
+                for (int i = scanFrom; i < limit; i++) {
+                    if (input[i] == '\n') {
+                        end = i;
+                        break;
+                    }
+                }
+                if (end < 0) {
+                    break;
+                }
+                String line = ChannelCommandSource.decode(input, position, end);
+                position = end + 1;
+                scanFrom = position;
+                linesHandled.increment();
+                session.accept(line);
+                closing = !session.isGoing();
+            }
+            if (endOfInput) {
+                // A peer that closes its side ends the session like a console at end of input.
+                if (!closing && position < limit) {
+                    linesHandled.increment();
+                    session.accept(ChannelCommandSource.decode(input, position, limit));
+                }
+                position = limit;
+                closing = true;
+            }
+            if (position == limit) {
+                position = 0;
+                limit = 0;
+            } else if (limit - position > DEFAULT_MAX_LINE_LENGTH) {
+                out.println("Line is too long.");
+                closing = true;
+            }
+        }
+
+        // Runs on the event loop.
+        void write() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            boolean busy;
+            synchronized (this) {
+                busy = working;
+            }
+            try {
+                if (!pending.writeTo(channel)) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                } else if (busy) {
+                    key.interestOps(0);
+                } else if (closing) {
+                    close();
+                } else {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void close() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            if (key != null) {
+                key.cancel();
+            }
+            closeQuietly(channel);
+            pending.close();
+            openConnections.decrementAndGet();
+            boolean busy;
+            synchronized (this) {
+                closed = true;
+                busy = working;
+            }
+            if (!busy) {
+                session.shutdown();
+            }
+        }
+    }
+
+    // Answers waiting for the socket. Grows while a peer reads slowly, up to the limit: past it the worker
+    // writing the answers waits for the event loop to drain them, and shrinks back once drained.
+    private static final class PendingOutput extends OutputStream {
+        private final int limit;
+        private final Runnable drain;
+        private byte[] buffer = new byte[OUTPUT_BUFFER_SIZE];
+        private int start;
+        private int end;
+        private boolean closed;
+
+        PendingOutput(int limit, Runnable drain) {
+            this.limit = limit;
+            this.drain = drain;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        // A single write larger than the limit still goes through once everything before it has drained.
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            while (!closed && start != end && end - start + length > limit) {
+                drain.run();
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the connection to drain", e);
+                }
+            }
+            if (closed) {
+                throw new IOException("Connection is closed");
+            }
+            if (end + length > buffer.length) {
+                if (end - start + length <= buffer.length) {
+                    System.arraycopy(buffer, start, buffer, 0, end - start);
+                } else {
+                    byte[] grown = new byte[Math.max(buffer.length * 2, end - start + length)];
+                    System.arraycopy(buffer, start, grown, 0, end - start);
+                    buffer = grown;
+                }
+                end -= start;
+                start = 0;
+            }
+            System.arraycopy(bytes, offset, buffer, end, length);
+            end += length;
+        }
+
+        // Returns whether everything has been written.
+        synchronized boolean writeTo(SocketChannel channel) throws IOException {
+            if (start < end) {
+                start += channel.write(ByteBuffer.wrap(buffer, start, end - start));
+                notifyAll();
+            }
+            if (start == end) {
+                start = 0;
+                end = 0;
+                if (buffer.length > OUTPUT_BUFFER_SIZE * 8) {
+                    buffer = new byte[OUTPUT_BUFFER_SIZE];
+                }
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // The connection is gone either way.
+        }
+    }
+}
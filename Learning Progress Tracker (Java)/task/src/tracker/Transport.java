@@ -0,0 +1,10 @@
+package tracker;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface Transport {
+
+    // Delivers the whole batch or throws; a failed batch is retried as a unit.
+    void send(List<Notification> batch) throws IOException;
+}
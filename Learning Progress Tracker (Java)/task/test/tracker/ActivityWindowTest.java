@@ -0,0 +1,77 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import static tracker.ActivityWindow.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivityWindowTest {
+    // Starts at a day boundary, so bucket edges are easy to reason about.
+    private long now = 20_000 * DAY_MILLIS;
+    private final ActivityWindow window = new ActivityWindow(() -> now);
+
+    @Test
+    void countsRecentSubmissionsAtEachResolution() {
+        window.record(10);
+        now += 30 * MINUTE_MILLIS;
+        window.record(5);
+        window.record(1);
+
+        assertEquals(new Totals(2, 6), window.totals(MINUTE_MILLIS));
+        assertEquals(new Totals(2, 6), window.totals(30 * MINUTE_MILLIS));
+        assertEquals(new Totals(3, 16), window.totals(31 * MINUTE_MILLIS));
+        assertEquals(new Totals(3, 16), window.totals(HOUR_MILLIS));
+        assertEquals(new Totals(3, 16), window.totals(DAY_MILLIS));
+        assertEquals(new Totals(3, 16), window.totals(MAX_WINDOW_MILLIS));
+    }
+
+    @Test
+    void oldBucketsLeaveTheWindowAndAreReused() {
+        window.record(10);
+        now += 2 * HOUR_MILLIS;
+        window.record(20);
+
+        assertEquals(new Totals(1, 20), window.totals(HOUR_MILLIS));
+        assertEquals(new Totals(2, 30), window.totals(3 * HOUR_MILLIS));
+
+        // Eight days on, a week-long window no longer reaches back to the first two.
+        now += 8 * DAY_MILLIS;
+        window.record(7);
+        assertEquals(new Totals(1, 7), window.totals(7 * DAY_MILLIS));
+        assertEquals(new Totals(3, 37), window.totals(9 * DAY_MILLIS));
+
+        now += MAX_WINDOW_MILLIS;
+        assertEquals(new Totals(0, 0), window.totals(MAX_WINDOW_MILLIS));
+    }
+
+    @Test
+    void rollsMinutesUpIntoHoursAndDays() {
+        long start = now;
+        window.record(10);
+        // A week later the first minute's slot is reused and it moves to the hour ring; another week later
+        // the second update follows it there, pushing the first hour on into the day ring.
+        now = start + 7 * DAY_MILLIS;
+        window.record(1);
+        now = start + 14 * DAY_MILLIS;
+        window.record(2);
+
+        assertEquals(new Totals(1, 2), window.totals(HOUR_MILLIS));
+        assertEquals(new Totals(1, 2), window.totals(7 * DAY_MILLIS));
+        assertEquals(new Totals(2, 3), window.totals(8 * DAY_MILLIS));
+        assertEquals(new Totals(3, 13), window.totals(15 * DAY_MILLIS));
+    }
+
+    @Test
+    void parsesDurations() {
+        assertEquals(15 * MINUTE_MILLIS, parseDuration("15m"));
+        assertEquals(HOUR_MILLIS, parseDuration(" 1H "));
+        assertEquals(2 * DAY_MILLIS, parseDuration("2d"));
+        assertEquals(7 * DAY_MILLIS, parseDuration("1w"));
+        assertEquals(MAX_WINDOW_MILLIS, parseDuration("90d"));
+        assertEquals(0, parseDuration("91d"));
+        assertEquals(0, parseDuration("0h"));
+        assertEquals(0, parseDuration("1 hour"));
+        assertEquals(0, parseDuration(""));
+        assertThrows(IllegalArgumentException.class, () -> window.totals(0));
+    }
+}
@@ -0,0 +1,58 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchModeTest {
+
+    @Test
+    void runsScriptWithoutPromptsAndCountsCommands() {
+        String script = String.join("\n",
+                "add students", "John Smith jsmith@hotmail.com", "Jane Doe jane@doe.org", "back",
+                "add points", "10000 600 400 0 0", "back",
+                "frobnicate", "",
+                "find", "10000", "back",
+                "exit");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink out = new BufferedOutputSink(bytes);
+        Tracker tracker = new Tracker(
+                new ChannelCommandSource(Channels.newChannel(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)))),
+                out);
+
+        BatchReport report = tracker.runBatch();
+
+        String expected = String.join(System.lineSeparator(),
+                "The student has been added.", "The student has been added.", "Total 2 students have been added.",
+                "Points updated.",
+                "Error: unknown command!", "No input!",
+                "10000 points: Java=600; DSA=400; Databases=0; Spring=0",
+                "Bye!", "");
+        assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+        assertEquals(13, report.getLines());
+        assertEquals(1, report.getEntry("add students").getCount());
+        assertEquals(4, report.getEntry("add students").getLines());
+        assertEquals(1, report.getEntry("(unknown)").getCount());
+        assertEquals(1, report.getEntry("(empty)").getCount());
+        assertEquals(1, report.getEntry("exit").getCount());
+    }
+
+    @Test
+    void endOfScriptStopsTheRun() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Tracker tracker = new Tracker(
+                new ChannelCommandSource(Channels.newChannel(new ByteArrayInputStream("list\nadd students\n".getBytes(StandardCharsets.UTF_8)))),
+                new BufferedOutputSink(bytes));
+
+        BatchReport report = tracker.runBatch();
+
+        assertEquals("No students found" + System.lineSeparator(), bytes.toString(StandardCharsets.UTF_8));
+        assertEquals(2, report.getLines());
+        assertEquals(1, report.getEntry("add students").getCount());
+    }
+}
@@ -0,0 +1,36 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferedOutputSinkTest {
+
+    @Test
+    void writesTextAndNumbersLikeStringConcatenation() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink out = new BufferedOutputSink(bytes, 16);
+        out.append("10000").append('\t').append(600).append('\t').append(100.0).append('%').newLine();
+        out.append(-42L).append(' ').append(Long.MIN_VALUE).append(' ').append(0.8).newLine();
+        out.println("Hello, Zoë 😀 Пётр!");
+        out.flush();
+
+        String expected = "10000\t600\t100.0%" + System.lineSeparator()
+                + "-42 " + Long.MIN_VALUE + " 0.8" + System.lineSeparator()
+                + "Hello, Zoë 😀 Пётр!" + System.lineSeparator();
+        assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void holdsOutputUntilFlushed() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink out = new BufferedOutputSink(bytes);
+        out.println("Students:");
+        assertEquals(0, bytes.size());
+        out.flush();
+        assertEquals("Students:" + System.lineSeparator(), bytes.toString(StandardCharsets.UTF_8));
+    }
+}
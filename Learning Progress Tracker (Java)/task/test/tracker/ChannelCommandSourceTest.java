@@ -0,0 +1,57 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelCommandSourceTest {
+
+    @Test
+    void readsTheSameLinesAsScanner() {
+        String text = "add students\r\nJohn Smith jsmith@hotmail.com\n\n"
+                + "Zoë Пётр-Иванов zoe@example.com\n" + "a".repeat(100) + "\nback\nexit";
+
+        assertEquals(readAll(new ScannerCommandSource(stream(text))),
+                readAll(new ChannelCommandSource(Channels.newChannel(stream(text)), 16)));
+    }
+
+    @Test
+    void returnsLinesAsSoonAsTheyArriveInPieces() {
+        // Hands out at most three bytes per read, like a slow interactive pipe.
+        InputStream trickle = new ByteArrayInputStream("list\nfind\n".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+
+            @Override
+            public synchronized int available() {
+                return 0;
+            }
+        };
+        CommandSource source = new ChannelCommandSource(Channels.newChannel(trickle));
+
+        assertEquals("list", source.readLine());
+        assertEquals("find", source.readLine());
+        assertNull(source.readLine());
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> readAll(CommandSource source) {
+        List<String> lines = new ArrayList<>();
+        for (String line = source.readLine(); line != null; line = source.readLine()) {
+            lines.add(line);
+        }
+        return lines;
+    }
+}
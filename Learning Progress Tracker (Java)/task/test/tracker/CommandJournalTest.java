@@ -0,0 +1,117 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandJournalTest {
+
+    private static class RecordingReplayer implements CommandJournal.Replayer {
+        final List<String> records = new ArrayList<>();
+
+        @Override
+        public void studentAdded(int id, String firstName, String lastName, String email) {
+            records.add("S " + id + " " + firstName + "|" + lastName + "|" + email);
+        }
+
+        @Override
+        public void pointsAdded(int id, int[] points) {
+            records.add("P " + id + " " + Arrays.toString(points));
+        }
+
+        @Override
+        public void completionNotified(int id, int course) {
+            records.add("N " + id + " " + course);
+        }
+    }
+
+    @Test
+    void replaysRecordsUnderEveryPolicy() throws IOException {
+        for (CommandJournal.FsyncPolicy policy : CommandJournal.FsyncPolicy.values()) {
+            Path path = Files.createTempFile("journal", ".log");
+            StudentRegistry registry = new StudentRegistry();
+            Student student = registry.register("Robert", "Jemison Van de Graaff", "robertvdgraaff@mit.edu");
+            try (CommandJournal journal = CommandJournal.open(path, policy, 1, new RecordingReplayer())) {
+                journal.appendStudentAdded(student);
+                journal.appendPointsAdded(student.getNumericID(), new int[]{600, 1, 2, 3});
+                journal.appendCompletionNotified(student.getNumericID(), 0);
+            }
+
+            RecordingReplayer replayer = new RecordingReplayer();
+            CommandJournal.replay(path, replayer);
+            assertEquals(List.of(
+                    "S 10000 Robert|Jemison Van de Graaff|robertvdgraaff@mit.edu",
+                    "P 10000 [600, 1, 2, 3]",
+                    "N 10000 0"), replayer.records, policy.name());
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void dropsTornTailOnOpen() throws IOException {
+        Path path = Files.createTempFile("journal", ".log");
+        Files.writeString(path, "N\t10000\t1\nP\t10000\t5", StandardOpenOption.APPEND);
+
+        RecordingReplayer replayer = new RecordingReplayer();
+        CommandJournal.open(path, CommandJournal.FsyncPolicy.ALWAYS, 1, replayer).close();
+
+        assertEquals(List.of("N 10000 1"), replayer.records);
+        assertEquals("N\t10000\t1\n", Files.readString(path));
+        Files.delete(path);
+    }
+
+    @Test
+    void acknowledgedRecordsAreOnDiskBeforeClose() throws Exception {
+        for (CommandJournal.FsyncPolicy policy : CommandJournal.FsyncPolicy.values()) {
+            Path path = Files.createTempFile("journal", ".log");
+            try (CommandJournal journal = CommandJournal.open(path, policy, 5, new RecordingReplayer())) {
+                journal.appendCompletionNotified(10000, 2);
+                journal.awaitDurable(journal.appendedSequence());
+                assertEquals("G\t0\nN\t10000\t2\n", Files.readString(path), policy.name());
+            }
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void concurrentAppendersShareGroupCommits() throws Exception {
+        Path path = Files.createTempFile("journal", ".log");
+        int threads = 8;
+        int appends = 200;
+        try (CommandJournal journal = CommandJournal.open(path, CommandJournal.FsyncPolicy.GROUP, 1,
+                new RecordingReplayer())) {
+            List<Thread> appenders = new ArrayList<>();
+            List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+            for (int t = 0; t < threads; t++) {
+                int course = t;
+                Thread appender = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < appends; i++) {
+                            journal.appendCompletionNotified(10000 + i, course);
+                            journal.awaitDurable(journal.appendedSequence());
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                });
+                appenders.add(appender);
+                appender.start();
+            }
+            for (Thread appender : appenders) {
+                appender.join();
+            }
+            assertEquals(List.of(), failures);
+            assertEquals(1 + threads * appends, Files.readAllLines(path).size());
+        }
+        Files.delete(path);
+    }
+}
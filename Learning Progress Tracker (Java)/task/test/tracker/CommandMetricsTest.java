@@ -0,0 +1,103 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandMetricsTest {
+
+    private static Tracker tracker(OutputStream bytes) {
+        return new Tracker(() -> null, new BufferedOutputSink(bytes));
+    }
+
+    private static void feed(Tracker tracker, String... lines) {
+        for (String line : lines) {
+            tracker.accept(line);
+        }
+    }
+
+    @Test
+    void countsAcceptedAndRejectedLinesPerCommandAcrossSessions() {
+        Tracker tracker = tracker(OutputStream.nullOutputStream());
+        Tracker session = tracker.session(new BufferedOutputSink(OutputStream.nullOutputStream()),
+                NotificationDispatcher.synchronous(new ConsoleTransport(new BufferedOutputSink(OutputStream.nullOutputStream()))));
+        feed(tracker, "add students", "John Smith jsmith@hotmail.com", "Jane Doe jane@doe.org", "bad", "back",
+                "frobnicate", "");
+        feed(session, "add points", "10000 1 2 3 4", "10000 x 2 3 4", "99999 1 1 1 1", "back",
+                "find", "10001", "12345", "back",
+                "statistics", "Java", "Cobol", "back");
+
+        CommandMetrics metrics = tracker.getMetrics();
+        assertEquals(3, metrics.command("add students line").getAccepted());
+        assertEquals(1, metrics.command("add students line").getRejected());
+        assertEquals(2, metrics.command("add points line").getAccepted());
+        assertEquals(2, metrics.command("add points line").getRejected());
+        assertEquals(2, metrics.command("find line").getAccepted());
+        assertEquals(1, metrics.command("find line").getRejected());
+        assertEquals(2, metrics.command("course details").getAccepted());
+        assertEquals(1, metrics.command("course details").getRejected());
+        assertEquals(1, metrics.command("(unknown)").getRejected());
+        assertEquals(1, metrics.command("(empty)").getRejected());
+        assertEquals(1, metrics.command("statistics").getAccepted());
+        assertEquals(4, metrics.command("add points line").getLatencies().getCount());
+        assertEquals(13, metrics.getAcceptedLines());
+        assertEquals(7, metrics.getRejectedLines());
+    }
+
+    @Test
+    void metricsCommandPrintsOneRowPerCommandSeen() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Tracker tracker = tracker(bytes);
+        feed(tracker, "list", "nonsense", "metrics", "exit");
+
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals("No students found", lines[0]);
+        assertEquals("Error: unknown command!", lines[1]);
+        assertTrue(lines[2].startsWith("command "));
+        assertTrue(lines[3].matches("\\(unknown\\) +0 +1 .*"), lines[3]);
+        assertTrue(lines[4].matches("list +1 +0 .*"), lines[4]);
+        assertEquals("Total 1 lines accepted, 1 rejected.", lines[5]);
+        assertEquals("Bye!", lines[6]);
+        assertEquals(7, lines.length);
+    }
+
+    @Test
+    void disabledMetricsStopTiming() {
+        Tracker tracker = tracker(OutputStream.nullOutputStream());
+        tracker.getMetrics().setEnabled(false);
+        feed(tracker, "list", "find", "10000", "back");
+
+        assertEquals(0, tracker.getMetrics().getAcceptedLines());
+        assertTrue(tracker.getMetrics().getCommands().isEmpty());
+    }
+
+    @Test
+    void publishesCommandsOverJmx() throws Exception {
+        Tracker tracker = tracker(OutputStream.nullOutputStream());
+        tracker.getMetrics().registerMBean();
+        feed(tracker, "list", "list", "oops");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(CommandMetrics.OBJECT_NAME);
+        assertEquals(2L, server.getAttribute(name, "AcceptedLines"));
+        assertEquals(1L, server.getAttribute(name, "RejectedLines"));
+        CompositeData[] commands = (CompositeData[]) server.getAttribute(name, "Commands");
+        assertEquals(2, commands.length);
+        assertEquals("list", commands[1].get("command"));
+        assertEquals(2L, commands[1].get("accepted"));
+        assertTrue((Double) commands[1].get("maxMillis") > 0);
+
+        server.setAttribute(name, new Attribute("Enabled", false));
+        assertFalse(tracker.getMetrics().isEnabled());
+        server.unregisterMBean(name);
+    }
+}
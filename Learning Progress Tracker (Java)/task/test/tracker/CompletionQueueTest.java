@@ -0,0 +1,45 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletionQueueTest {
+    private final Course java = new Course(0, "Java", 600);
+    private final Course dsa = new Course(1, "DSA", 400);
+    private final StudentRegistry registry = new StudentRegistry(new StudentIdAllocator(), List.of(java, dsa));
+
+    @Test
+    void queuesCompletionsOnceInSlotAndCourseOrder() {
+        Student john = registry.register("John", "Doe", "johnd@email.net");
+        Student jane = registry.register("Jane", "Spark", "jspark@yahoo.com");
+        jane.updatePoints(dsa, 400);
+        john.updatePoints(dsa, 400);
+        john.updatePoints(java, 300);
+        john.updatePoints(java, 300);
+        jane.updatePoints(java, 100);
+
+        CompletionQueue completions = registry.getCompletions();
+        assertEquals(3, completions.size());
+        long[] events = completions.drain();
+        assertEquals(0, completions.size());
+
+        assertEquals(CompletionQueue.encode(john.getSlot(), java.getOrdinal()), events[0]);
+        assertEquals(CompletionQueue.encode(john.getSlot(), dsa.getOrdinal()), events[1]);
+        assertEquals(CompletionQueue.encode(jane.getSlot(), dsa.getOrdinal()), events[2]);
+    }
+
+    @Test
+    void requeuesAfterDrain() {
+        CompletionQueue completions = registry.getCompletions();
+        registry.register("John", "Doe", "johnd@email.net");
+        completions.offer(0, 1);
+        completions.offer(0, 1);
+        assertEquals(1, completions.drain().length);
+
+        completions.offer(0, 1);
+        assertEquals(1, completions.size());
+    }
+}
@@ -0,0 +1,144 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentUpdateStressTest {
+    private static final int THREADS = 8;
+    private static final int STUDENTS = 2_000;
+    private static final int UPDATES_PER_THREAD = 20_000;
+    private static final int POINTS = 3;
+
+    @Test
+    void concurrentRegistrationsAndUpdatesKeepEveryAggregateExact() throws Exception {
+        List<Course> courses = CourseCatalog.defaults().courses();
+        StudentRegistry registry = new StudentRegistry(new StudentIdAllocator(), courses);
+        CourseStatistics statistics = new CourseStatistics(courses);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            runScenario(courses, registry, statistics, pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void runScenario(List<Course> courses, StudentRegistry registry, CourseStatistics statistics,
+                                    ExecutorService pool) throws Exception {
+        // Every thread tries to register every student; each email must win exactly once.
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> registrations = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            registrations.add(pool.submit(() -> {
+                start.await();
+                int added = 0;
+                for (int i = 0; i < STUDENTS; i++) {
+                    if (registry.register("Name", "Surname", "student" + i + "@mail.com") != null) {
+                        added++;
+                    }
+                }
+                return added;
+            }));
+        }
+        start.countDown();
+        int registered = 0;
+        for (Future<Integer> registration : registrations) {
+            registered += registration.get();
+        }
+        assertEquals(STUDENTS, registered);
+        assertEquals(STUDENTS, registry.size());
+        for (int slot = 0; slot < STUDENTS; slot++) {
+            assertNotNull(registry.findById(StudentIdAllocator.idOf(slot)));
+        }
+
+        for (Course course : courses) {
+            registry.findById(StudentIdAllocator.FIRST_ID).updatePoints(course, POINTS);
+        }
+        AtomicIntegerArray expected = new AtomicIntegerArray(STUDENTS * courses.size());
+        for (int c = 0; c < courses.size(); c++) {
+            expected.set(c, POINTS);
+        }
+
+        String allCourses = "Java, DSA, Databases, Spring";
+        AtomicBoolean running = new AtomicBoolean(true);
+        Future<Integer> reader = pool.submit(() -> {
+            int reads = 0;
+            while (running.get()) {
+                CourseStatistics.Summary summary = statistics.getSummary();
+                assertEquals(allCourses, summary.easiestCourse());
+                assertEquals("n/a", summary.hardestCourse());
+                reads++;
+            }
+            return reads;
+        });
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            writers.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                    int slot = random.nextInt(STUDENTS);
+                    Student student = registry.findById(StudentIdAllocator.idOf(slot));
+                    ReentrantLock lock = student.lock();
+                    try {
+                        for (int c = 0; c < courses.size(); c++) {
+                            if (random.nextBoolean()) {
+                                student.updatePoints(courses.get(c), POINTS);
+                                expected.addAndGet(slot * courses.size() + c, POINTS);
+                            }
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        running.set(false);
+        assertTrue(reader.get() > 0);
+
+        for (int c = 0; c < courses.size(); c++) {
+            Course course = courses.get(c);
+            long updates = 0;
+            int enrolled = 0;
+            List<Integer> ranked = new ArrayList<>();
+            for (int slot = 0; slot < STUDENTS; slot++) {
+                int points = expected.get(slot * courses.size() + c);
+                Student student = registry.findById(StudentIdAllocator.idOf(slot));
+                assertEquals(points, student.getPointsForCourse(course));
+                updates += points / POINTS;
+                if (points > 0) {
+                    enrolled++;
+                    ranked.add(slot);
+                }
+                boolean completed = course.getTotalNumberOfPoints() % POINTS == 0 && points >= course.getTotalNumberOfPoints();
+                assertEquals(completed, registry.getPoints().isCompletionPending(slot, c));
+            }
+            assertEquals(updates, course.getTotalNumberOfCompletedTasks());
+            assertEquals(updates * POINTS, course.getTotalNumberOfCompletedTasksPoint());
+            assertEquals(enrolled, course.getTotalEnrolledStudents());
+
+            ranked.sort(Comparator.comparingInt((Integer slot) -> -registry.getPoints().getPoints(slot, course.getOrdinal()))
+                    .thenComparing(slot -> StudentIdAllocator.format(StudentIdAllocator.idOf(slot))));
+            assertArrayEquals(ranked.stream().mapToInt(Integer::intValue).toArray(),
+                    registry.getLeaderboard(course).top(STUDENTS));
+        }
+        assertEquals(allCourses, statistics.getSummary().easiestCourse());
+    }
+}
@@ -0,0 +1,80 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseCatalogTest {
+
+    @Test
+    void defaultsAreTheDataStoreCoursesAndFreshPerCatalog() {
+        CourseCatalog first = CourseCatalog.defaults();
+        CourseCatalog second = CourseCatalog.defaults();
+
+        assertEquals(List.of("Java", "DSA", "Databases", "Spring"), first.courses().stream().map(Course::getName).toList());
+        assertSame(first.get(2), first.find("dAtAbAsEs"));
+        assertNull(first.find("Data"));
+        assertNotSame(first.get(0), second.get(0));
+    }
+
+    @Test
+    void loadsHundredsOfCoursesInFileOrder() throws IOException {
+        StringBuilder config = new StringBuilder("# name = total points\n\n");
+        for (int i = 0; i < 300; i++) {
+            config.append("Course ").append(i).append(" = ").append(100 + i).append('\n');
+        }
+        Path path = Files.createTempFile("courses", ".conf");
+        Files.writeString(path, config);
+        CourseCatalog catalog = CourseCatalog.load(path);
+        Files.delete(path);
+
+        assertEquals(300, catalog.size());
+        for (int i = 0; i < 300; i++) {
+            Course course = catalog.find("COURSE " + i);
+            assertEquals(i, course.getOrdinal());
+            assertEquals(100 + i, course.getTotalNumberOfPoints());
+        }
+    }
+
+    @Test
+    void rejectsMalformedAndDuplicateCourses() throws IOException {
+        Path path = Files.createTempFile("courses", ".conf");
+        for (String config : List.of("Java = 600\njava = 400\n", "Java 600\n", "Java = -1\n", "# nothing\n")) {
+            Files.writeString(path, config);
+            assertThrows(IOException.class, () -> CourseCatalog.load(path), config);
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    void trackerUsesTheCatalogForPointsAndDetails() {
+        CourseCatalog catalog = new CourseCatalog(List.of(
+                new Course(0, "Kotlin", 100), new Course(1, "Go", 50), new Course(2, "Rust", 70)));
+        String script = String.join("\n", "add students", "John Smith js@mail.com", "back",
+                "add points", "10000 10 20 30 40", "10000 10 50 0", "back",
+                "find", "10000", "back",
+                "statistics", "go", "Java", "back", "notify", "exit");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink out = new BufferedOutputSink(bytes);
+        new Tracker(new ChannelCommandSource(Channels.newChannel(
+                new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)))), out,
+                NotificationDispatcher.synchronous(new ConsoleTransport(out)), catalog).runBatch();
+
+        String output = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("Incorrect points format."), output);
+        assertTrue(output.contains("10000 points: Kotlin=10; Go=50; Rust=0"), output);
+        assertTrue(output.contains("Go" + System.lineSeparator() + "id\tpoints\tcompleted"
+                + System.lineSeparator() + "10000\t50\t100.0%"), output);
+        assertTrue(output.contains("Unknown course."), output);
+        assertTrue(output.contains("Total 1 students have been notified."), output);
+    }
+}
@@ -0,0 +1,111 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseLeaderboardTest {
+    private final Course java = new Course(0, "Java", 600);
+    private final StudentRegistry registry = new StudentRegistry(new StudentIdAllocator(), List.of(java));
+
+    @Test
+    void matchesSortedOrderUnderRandomUpdates() {
+        Random random = new Random(42);
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            students.add(registry.register("Name", "Surname", "address" + i + "@mail.com"));
+        }
+        for (int i = 0; i < 20000; i++) {
+            students.get(random.nextInt(students.size())).updatePoints(java, 1 + random.nextInt(5));
+        }
+        for (int i = 0; i < 300; i++) {
+            Student student = students.get(random.nextInt(students.size()));
+            student.removeCourseFromEnrolledList(java);
+            java.removeStudent(student);
+        }
+
+        List<String> expected = students.stream()
+                .filter(student -> java.hasAlreadyEnrolled(student.getNumericID()))
+                .filter(student -> student.getPointsForCourse(java) > 0)
+                .sorted(Comparator.comparingInt((Student student) -> -student.getPointsForCourse(java))
+                        .thenComparing(Student::getID))
+                .map(Student::getID)
+                .toList();
+        List<String> ranked = new ArrayList<>();
+        registry.getLeaderboard(java).forEach(slot -> ranked.add(StudentIdAllocator.format(StudentIdAllocator.idOf(slot))));
+
+        assertEquals(expected, ranked);
+        assertEquals(expected.size(), registry.getLeaderboard(java).size());
+    }
+
+    @Test
+    void pagesAfterCursorAndReturnsTopK() {
+        for (int i = 0; i < 10; i++) {
+            registry.register("Name", "Surname", "address" + i + "@mail.com").updatePoints(java, 10 - i);
+        }
+        CourseLeaderboard leaderboard = registry.getLeaderboard(java);
+
+        assertArrayEquals(new int[]{0, 1, 2}, leaderboard.top(3));
+
+        List<Integer> page = new ArrayList<>();
+        leaderboard.forEachAfter(2, slot -> {
+            page.add(slot);
+            return page.size() < 3;
+        });
+        assertEquals(List.of(3, 4, 5), page);
+    }
+
+    @Test
+    void rebuildAfterSuspendedUpdatesMatchesIncrementalRanking() {
+        Course suspendedJava = new Course(0, "Java", 600);
+        StudentRegistry suspended = new StudentRegistry(new StudentIdAllocator(95000), List.of(suspendedJava));
+        StudentRegistry incremental = new StudentRegistry(new StudentIdAllocator(95000), List.of(java));
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            suspended.register("Name", "Surname", "address" + i + "@mail.com");
+            incremental.register("Name", "Surname", "address" + i + "@mail.com");
+        }
+        suspended.suspendRanking();
+        for (int i = 0; i < 15000; i++) {
+            int id = 95000 + random.nextInt(10000);
+            int points = 1 + random.nextInt(3);
+            suspended.findById(id).updatePoints(suspendedJava, points);
+            incremental.findById(id).updatePoints(java, points);
+        }
+        suspended.resumeRanking();
+
+        assertArrayEquals(incremental.getLeaderboard(java).top(20000), suspended.getLeaderboard(suspendedJava).top(20000));
+        assertEquals(incremental.getLeaderboard(java).size(), suspended.getLeaderboard(suspendedJava).size());
+    }
+
+    @Test
+    void boardReadersWaitUntilSuspendedRankingIsRebuilt() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            registry.register("Name", "Surname", "address" + i + "@mail.com").updatePoints(java, 1);
+        }
+        registry.suspendRanking();
+        for (int i = 0; i < 100; i++) {
+            registry.findById(StudentIdAllocator.FIRST_ID + i).updatePoints(java, i);
+        }
+        List<Integer> ranked = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch read = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            registry.forEachRankedAfter(java, -1, slot -> ranked.add(slot) || true);
+            read.countDown();
+        });
+        reader.start();
+        assertFalse(read.await(200, TimeUnit.MILLISECONDS));
+        registry.resumeRanking();
+
+        assertTrue(read.await(10, TimeUnit.SECONDS));
+        reader.join();
+        assertEquals(100, ranked.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(99 - i, (int) ranked.get(i));
+        }
+    }
+}
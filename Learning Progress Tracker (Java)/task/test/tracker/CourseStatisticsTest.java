@@ -0,0 +1,94 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseStatisticsTest {
+    private final Course java = new Course(0, "Java", 600);
+    private final Course dsa = new Course(1, "DSA", 400);
+    private final Course databases = new Course(2, "Databases", 480);
+    private final List<Course> courses = List.of(java, dsa, databases);
+    private final StudentRegistry registry = new StudentRegistry(new StudentIdAllocator(), courses);
+    private final CourseStatistics statistics = new CourseStatistics(courses);
+
+    @Test
+    void reportsNotAvailableWithoutActivity() {
+        CourseStatistics.Summary summary = statistics.getSummary();
+        assertEquals("n/a", summary.mostPopular());
+        assertEquals("n/a", summary.leastPopular());
+        assertEquals("n/a", summary.highestActivity());
+        assertEquals("n/a", summary.lowestActivity());
+        assertEquals("n/a", summary.easiestCourse());
+        assertEquals("n/a", summary.hardestCourse());
+    }
+
+    @Test
+    void ranksCoursesAndRefreshesAfterUpdates() {
+        Student john = registry.register("John", "Doe", "johnd@email.net");
+        Student jane = registry.register("Jane", "Spark", "jspark@yahoo.com");
+        john.updatePoints(java, 10);
+        jane.updatePoints(java, 4);
+        john.updatePoints(dsa, 3);
+        john.updatePoints(databases, 20);
+
+        CourseStatistics.Summary summary = statistics.getSummary();
+        assertEquals("Java", summary.mostPopular());
+        assertEquals("DSA, Databases", summary.leastPopular());
+        assertEquals("Java", summary.highestActivity());
+        assertEquals("DSA, Databases", summary.lowestActivity());
+        assertEquals("Databases", summary.easiestCourse());
+        assertEquals("DSA", summary.hardestCourse());
+        assertSame(summary, statistics.getSummary());
+
+        jane.updatePoints(dsa, 1);
+        summary = statistics.getSummary();
+        assertEquals("Java, DSA", summary.mostPopular());
+        assertEquals("Databases", summary.leastPopular());
+        assertEquals("Java, DSA", summary.highestActivity());
+    }
+
+    @Test
+    void countsTasksBeyondIntRange() {
+        for (int i = 0; i < 3; i++) {
+            java.updateTotalNumberOfCompletedTasks(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        }
+        assertEquals(3L * Integer.MAX_VALUE, java.getTotalNumberOfCompletedTasks());
+        assertEquals(1.0, java.getAveragePerAssignment(), 0.0);
+    }
+
+    @Test
+    void ranksRecentActivityWithoutTheAllTimeTotals() {
+        long[] now = {ActivityWindow.DAY_MILLIS};
+        Course spring = new Course(0, "Spring", 550, new ActivityWindow(() -> now[0]));
+        Course go = new Course(1, "Go", 300, new ActivityWindow(() -> now[0]));
+        Course rust = new Course(2, "Rust", 300, new ActivityWindow(() -> now[0]));
+        List<Course> recent = List.of(spring, go, rust);
+        Student john = new StudentRegistry(new StudentIdAllocator(), recent).register("John", "Doe", "johnd@email.net");
+        for (int i = 0; i < 5; i++) {
+            john.updatePoints(spring, 1);
+        }
+        now[0] += 2 * ActivityWindow.HOUR_MILLIS;
+        john.updatePoints(go, 2);
+        john.updatePoints(go, 3);
+        john.updatePoints(rust, 9);
+        CourseStatistics recentStatistics = new CourseStatistics(recent);
+
+        assertEquals("Spring", recentStatistics.getSummary().highestActivity());
+        CourseStatistics.WindowSummary hour = recentStatistics.getWindowSummary(ActivityWindow.HOUR_MILLIS);
+        assertEquals("Go", hour.highestActivity());
+        assertEquals("Rust", hour.lowestActivity());
+        assertEquals(List.of(new CourseStatistics.CourseActivity("Go", 2, 5),
+                new CourseStatistics.CourseActivity("Rust", 1, 9),
+                new CourseStatistics.CourseActivity("Spring", 0, 0)), hour.ranking());
+
+        CourseStatistics.WindowSummary day = recentStatistics.getWindowSummary(ActivityWindow.DAY_MILLIS);
+        assertEquals("Spring", day.highestActivity());
+        assertEquals("Rust", day.lowestActivity());
+
+        now[0] += 2 * ActivityWindow.DAY_MILLIS;
+        assertEquals("n/a", recentStatistics.getWindowSummary(ActivityWindow.DAY_MILLIS).highestActivity());
+    }
+}
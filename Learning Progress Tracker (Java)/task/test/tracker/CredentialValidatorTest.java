@@ -0,0 +1,121 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CredentialValidatorTest {
+    // The patterns 'add students' used before the validator replaced them.
+    private static final String nameRegex = "^(?<!['-])[a-zA-Z][a-zA-Z' -]+(?<!['-])$";
+    private static final String adjacentRegex = "^(?!.*['-]{2})[A-Za-z' -]+$";
+    private static final String emailRegex = "^[\\w.]+@\\w+\\.\\w+$";
+
+    private static final String ALPHABET = "aZq'- .@_7\tél";
+
+    @Test
+    void agreesWithTheRegexesOnRandomInput() {
+        Random random = new Random(2024);
+        for (int i = 0; i < 200_000; i++) {
+            String text = randomText(random, 10);
+            boolean name = text.length() >= 2 && text.matches(nameRegex) && text.matches(adjacentRegex);
+            assertEquals(name, CredentialValidator.isValidName(text), text);
+            assertEquals(text.matches(emailRegex), CredentialValidator.isValidEmail(text), text);
+        }
+    }
+
+    @Test
+    void agreesWithTheRegexesOnKnownCases() {
+        for (String name : List.of("Jo", "J", "O'Neil", "Jean-Claude", "Jean-'Claude", "Jean--Claude", "-Jo", "Jo-",
+                "Jo'", "'Jo", "Ann Mary", "Ann  Mary", "Jo ", "Zoë", "J.", "Jo - Ann")) {
+            boolean expected = name.length() >= 2 && name.matches(nameRegex) && name.matches(adjacentRegex);
+            assertEquals(expected, CredentialValidator.isValidName(name), name);
+        }
+        for (String email : List.of("a@b.c", "a.b@c.d", ".@c.d", "a@b.c.d", "a@.c", "a@b.", "@b.c", "a@b@c.d",
+                "a_1@b_2.c3", "a@b", "a b@c.d", "ä@b.c")) {
+            assertEquals(email.matches(emailRegex), CredentialValidator.isValidEmail(email), email);
+        }
+    }
+
+    @Test
+    void addStudentsRespondsLikeTheRegexImplementation() {
+        Random random = new Random(7);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder line = new StringBuilder();
+            int words = random.nextInt(5);
+            for (int w = 0; w < words; w++) {
+                line.append(random.nextBoolean() ? " " : random.nextBoolean() ? "\t " : "  ");
+                line.append(random.nextInt(3) == 0 ? randomText(random, 6) : randomWord(random, w == words - 1));
+            }
+            if (!line.toString().trim().equalsIgnoreCase("back")) {
+                lines.add(line.toString());
+            }
+        }
+
+        StringBuilder script = new StringBuilder("add students\n");
+        lines.forEach(line -> script.append(line).append('\n'));
+        script.append("back\n");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new Tracker(new ChannelCommandSource(Channels.newChannel(
+                new ByteArrayInputStream(script.toString().getBytes(StandardCharsets.UTF_8)))),
+                new BufferedOutputSink(bytes)).runBatch();
+
+        StringBuilder expected = new StringBuilder();
+        Set<String> emails = new HashSet<>();
+        for (String line : lines) {
+            expected.append(respondWithRegexes(line.trim(), emails)).append(System.lineSeparator());
+        }
+        expected.append("Total ").append(emails.size()).append(" students have been added.").append(System.lineSeparator());
+        assertEquals(expected.toString(), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    private static String respondWithRegexes(String input, Set<String> emails) {
+        if (input.isEmpty()) {
+            return "Incorrect credentials.";
+        }
+        String[] words = input.split("\\s+");
+        if (words.length < 3) {
+            return "Incorrect credentials.";
+        }
+        String firstName = words[0];
+        String lastName = Stream.of(words).skip(1).limit(words.length - 2).reduce("", (a, b) -> a + " " + b).trim();
+        String email = words[words.length - 1];
+        if (firstName.length() < 2 || !firstName.matches(nameRegex) || !firstName.matches(adjacentRegex)) {
+            return "Incorrect first name.";
+        } else if (lastName.length() < 2 || !lastName.matches(nameRegex) || !lastName.matches(adjacentRegex)) {
+            return "Incorrect last name.";
+        } else if (!email.matches(emailRegex)) {
+            return "Incorrect email.";
+        }
+        return emails.add(email.trim().toLowerCase(Locale.ROOT))
+                ? "The student has been added."
+                : "This email is already taken";
+    }
+
+    private static String randomText(Random random, int maxLength) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+    // Mostly well-formed words, so that the later checks and the duplicate check get exercised too.
+    private static String randomWord(Random random, boolean email) {
+        String name = "Ab" + "cd'-e".charAt(random.nextInt(5)) + "f".repeat(random.nextInt(2));
+        return email ? name.replaceAll("['-]", "") + "@mail" + random.nextInt(3) + ".com" : name;
+    }
+}
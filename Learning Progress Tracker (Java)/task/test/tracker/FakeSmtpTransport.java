@@ -0,0 +1,40 @@
+package tracker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// In-process stand-in for an SMTP relay: records delivered messages and can fail the first attempts.
+class FakeSmtpTransport implements Transport {
+    private final List<Notification> delivered = new ArrayList<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private int failuresLeft;
+    private int attempts;
+
+    FakeSmtpTransport(int failFirstAttempts) {
+        failuresLeft = failFirstAttempts;
+    }
+
+    @Override
+    public synchronized void send(List<Notification> batch) throws IOException {
+        attempts++;
+        if (failuresLeft > 0) {
+            failuresLeft--;
+            throw new IOException("421 Service not available");
+        }
+        delivered.addAll(batch);
+        batchSizes.add(batch.size());
+    }
+
+    synchronized List<Notification> getDelivered() {
+        return new ArrayList<>(delivered);
+    }
+
+    synchronized List<Integer> getBatchSizes() {
+        return new ArrayList<>(batchSizes);
+    }
+
+    synchronized int getAttempts() {
+        return attempts;
+    }
+}
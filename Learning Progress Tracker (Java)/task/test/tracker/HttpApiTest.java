@@ -0,0 +1,154 @@
+package tracker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpApiTest {
+    private Tracker tracker;
+    private HttpApi api;
+    private HttpClient client;
+    private String base;
+
+    @BeforeEach
+    void startApi() throws IOException {
+        tracker = new Tracker(() -> null, new BufferedOutputSink(new ByteArrayOutputStream()));
+        api = new HttpApi(tracker, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)).start();
+        client = HttpClient.newHttpClient();
+        base = "http://127.0.0.1:" + api.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopApi() {
+        api.close();
+        tracker.shutdown();
+    }
+
+    @Test
+    void registersStudentsAndAddsPoints() throws Exception {
+        HttpResponse<String> created = post("/students",
+                "{\"firstName\": \"John\", \"lastName\": \"Smith\", \"email\": \"jsmith@hotmail.com\"}");
+        assertEquals(201, created.statusCode());
+        assertEquals("{\"id\":10000}", created.body());
+
+        HttpResponse<String> updated = post("/students/10000/points", "{\"points\": [600, 400, 0, 5]}");
+        assertEquals(200, updated.statusCode());
+        assertEquals("{\"id\":10000,\"points\":{\"Java\":600,\"DSA\":400,\"Databases\":0,\"Spring\":5}}",
+                updated.body());
+        assertEquals(updated.body(), get("/students/10000/points").body());
+    }
+
+    @Test
+    void rejectsInvalidRequests() throws Exception {
+        post("/students", "{\"firstName\": \"John\", \"lastName\": \"Smith\", \"email\": \"jsmith@hotmail.com\"}");
+
+        HttpResponse<String> taken = post("/students",
+                "{\"firstName\": \"Jane\", \"lastName\": \"Smith\", \"email\": \"jsmith@hotmail.com\"}");
+        assertEquals(409, taken.statusCode());
+        assertEquals("{\"error\":\"This email is already taken\"}", taken.body());
+        HttpResponse<String> badEmail = post("/students",
+                "{\"firstName\": \"Jane\", \"lastName\": \"Smith\", \"email\": \"jane@\"}");
+        assertEquals(400, badEmail.statusCode());
+        assertEquals("{\"error\":\"Incorrect email.\"}", badEmail.body());
+        assertEquals(400, post("/students", "{\"firstName\": ").statusCode());
+        assertEquals(400, post("/students/10000/points", "{\"points\": [1, 2, 3]}").statusCode());
+        assertEquals(400, post("/students/10000/points", "{\"points\": [1, 2, 3, -4]}").statusCode());
+        assertEquals(404, get("/students/10001/points").statusCode());
+        assertEquals(404, get("/courses/Latin/leaderboard").statusCode());
+        assertEquals(405, get("/students").statusCode());
+    }
+
+    @Test
+    void reportsStatisticsAndLeaderboards() throws Exception {
+        for (int i = 0; i < 3000; i++) {
+            Student student = tracker.registerStudent("First", "Last", "student" + i + "@example.com");
+            tracker.addPoints(student, new int[]{i % 600, 0, 0, 0});
+        }
+
+        assertEquals("{\"mostPopular\":\"Java\",\"leastPopular\":\"n/a\","
+                        + "\"highestActivity\":\"Java\",\"lowestActivity\":\"n/a\","
+                        + "\"easiestCourse\":\"Java\",\"hardestCourse\":\"n/a\"}",
+                get("/statistics").body());
+        String top = get("/courses/java/leaderboard?limit=2").body();
+        assertEquals("{\"course\":\"Java\",\"students\":[{\"id\":10599,\"points\":599,\"completed\":99.8},"
+                + "{\"id\":11199,\"points\":599,\"completed\":99.8}]}", top);
+        assertEquals("{\"course\":\"Java\",\"students\":[{\"id\":11799,\"points\":599,\"completed\":99.8}]}",
+                get("/courses/Java/leaderboard?limit=1&after=11199").body());
+        String all = get("/courses/Java/leaderboard").body();
+        assertEquals(2995, all.split("\"id\"").length - 1);
+    }
+
+    // Excluded from 'gradle test'; run with 'gradle loadTest'.
+    @Test
+    @Tag("load")
+    void loadTestKeepsLatenciesBounded() throws Exception {
+        int students = 200;
+        for (int i = 0; i < students; i++) {
+            tracker.registerStudent("First", "Last", "load" + i + "@example.com");
+        }
+        int threads = 16;
+        int requestsPerThread = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(pool.submit(() -> {
+                    long[] latencies = new long[requestsPerThread];
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        String path = "/students/" + (10000 + (thread * 31 + i) % students) + "/points";
+                        long started = System.nanoTime();
+                        HttpResponse<String> response = i % 4 == 0 ? get("/statistics")
+                                : i % 2 == 0 ? get(path) : post(path, "{\"points\": [1, 1, 1, 1]}");
+                        latencies[i] = System.nanoTime() - started;
+                        assertEquals(200, response.statusCode());
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[threads * requestsPerThread];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(results.get(t).get(), 0, all, t * requestsPerThread, requestsPerThread);
+            }
+            Arrays.sort(all);
+            long p99 = all[all.length * 99 / 100];
+            assertTrue(p99 < TimeUnit.SECONDS.toNanos(5), "p99 " + p99 / 1_000_000 + " ms");
+        } finally {
+            pool.shutdownNow();
+        }
+        long points = 0;
+        for (int i = 0; i < students; i++) {
+            points += tracker.getStudents().findById(10000 + i).getPointsForCourse(tracker.getCatalog().get(0));
+        }
+        assertEquals(threads * requestsPerThread / 2, points);
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(base + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(base + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,65 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValueInOrder() {
+        long previousUpper = -1;
+        for (int bucket = 0; bucket < LatencyHistogram.bucketOf(1L << 40); bucket++) {
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(previousUpper + 1));
+            assertEquals(bucket, LatencyHistogram.bucketOf(upper));
+            assertTrue(upper - previousUpper <= Math.max(1, upper / 64), "bucket " + bucket + " is too wide");
+            previousUpper = upper;
+        }
+    }
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 1_000_000; nanos++) {
+            histogram.record(nanos * 1_000);
+        }
+
+        assertEquals(1_000_000, histogram.getCount());
+        assertEquals(1_000_000_000L, histogram.getMaxNanos());
+        assertEquals(500_000_500.0, histogram.getMeanNanos(), 1e-3);
+        assertEquals(500_000_000, histogram.getPercentileNanos(50), 500_000_000 / 64.0);
+        assertEquals(990_000_000, histogram.getPercentileNanos(99), 990_000_000 / 64.0);
+        assertEquals(1_000_000_000L, histogram.getPercentileNanos(100));
+        assertEquals(0, new LatencyHistogram().getPercentileNanos(99));
+    }
+
+    @Test
+    void concurrentRecordingsAndMergesAreAllCounted() throws InterruptedException {
+        LatencyHistogram shared = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    shared.record(i + offset);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.record(5_000_000);
+        merged.add(shared);
+
+        assertEquals(400_000, shared.getCount());
+        assertEquals(100_002, shared.getMaxNanos());
+        assertEquals(400_001, merged.getCount());
+        assertEquals(5_000_000, merged.getMaxNanos());
+    }
+}
@@ -0,0 +1,114 @@
+package tracker;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListCommandTest {
+    private ByteArrayOutputStream bytes;
+    private OutputSink out;
+    private Tracker tracker;
+
+    // Students 10000..10024; every third one has points in Java (3 points per student index), every fifth in DSA.
+    @BeforeEach
+    void populate() {
+        bytes = new ByteArrayOutputStream();
+        out = new BufferedOutputSink(bytes);
+        tracker = new Tracker(() -> null, out);
+        for (int i = 0; i < 25; i++) {
+            Student student = tracker.registerStudent("John", "Smith", "john" + i + "@mail.com");
+            tracker.addPoints(student, new int[]{i % 3 == 0 ? 3 * i : 0, i % 5 == 0 ? 40 : 0, 0, 0});
+        }
+    }
+
+    private List<String> run(String line) {
+        bytes.reset();
+        tracker.accept(line);
+        out.flush();
+        return List.of(bytes.toString(StandardCharsets.UTF_8).split(System.lineSeparator()));
+    }
+
+    private List<String> list(String arguments) {
+        return run(arguments.isEmpty() ? "list" : "list " + arguments);
+    }
+
+    private List<String> query(String arguments) {
+        return run(arguments.isEmpty() ? "query" : "query " + arguments);
+    }
+
+    @Test
+    void bareListPrintsEveryStudentOfASmallCohort() {
+        List<String> lines = list("");
+
+        assertEquals(26, lines.size());
+        assertEquals("Students:", lines.get(0));
+        assertEquals("10000", lines.get(1));
+        assertEquals("10024", lines.get(25));
+        assertEquals(List.of("No students found"), listOnEmptyTracker());
+    }
+
+    private List<String> listOnEmptyTracker() {
+        tracker = new Tracker(() -> null, out);
+        return list("");
+    }
+
+    @Test
+    void pagesFollowTheCursor() {
+        List<String> first = list("10");
+        assertEquals(List.of("Students:", "10000", "10001", "10002", "10003", "10004", "10005", "10006", "10007",
+                "10008", "10009", "More students follow; type 'list 10 after 10009' for the next page."), first);
+
+        List<String> last = list("10 after 10019");
+        assertEquals(List.of("Students:", "10020", "10021", "10022", "10023", "10024"), last);
+        assertEquals(List.of("No students found"), list("10 after 10024"));
+    }
+
+    @Test
+    void filtersByEnrollmentAndCompletion() {
+        assertEquals(List.of("Students:", "10003", "10006", "10009", "10012", "10015", "10018", "10021", "10024"),
+                list("in java"));
+        // Java needs 600 points, so above 10% means more than 60: indexes 21 and 24.
+        assertEquals(List.of("Students:", "10021", "10024"), list("in Java above 10"));
+        // DSA needs 400 points and every DSA student has 40 of them, exactly 10%.
+        assertEquals(List.of("Students:", "10000", "10005", "10010", "10015", "10020"), list("in DSA above 9.5"));
+        assertEquals(List.of("Students:", "10000", "10005", "10010", "10015", "10020", "10021", "10024"),
+                list("above 9.9"));
+        assertEquals(List.of("Students:", "10005", "10010",
+                        "More students follow; type 'list 2 after 10010 in DSA above 9' for the next page."),
+                list("2 in DSA above 9 after 10000"));
+    }
+
+    @Test
+    void queryCombinesEnrollmentAndCompletion() {
+        tracker.addPoints(tracker.getStudents().findById(10005), new int[]{0, 360, 0, 0});
+
+        assertEquals(List.of("Students:", "10015", "Total 1 students match."), query("Java and DSA"));
+        assertEquals(List.of("Students:", "10000", "10005", "10010", "10020", "Total 4 students match."),
+                query("dsa but not java"));
+        assertEquals(List.of("Students:", "10005", "Total 1 students match."), query("completed DSA"));
+        assertEquals(List.of("Students:", "10003", "10006", "10009", "10012", "10018", "10021", "10024",
+                "Total 7 students match."), query("Java or completed DSA and not DSA"));
+        assertEquals(List.of("No students found"), query("Spring"));
+        assertEquals(List.of("Unknown course."), query("Java and Cobol"));
+        String usage = "Usage: query [completed] <course> [and | or | and not | but not [completed] <course>]...";
+        assertEquals(List.of(usage), query(""));
+        assertEquals(List.of(usage), query("Java xor DSA"));
+        assertEquals(List.of(usage), query("Java and"));
+    }
+
+    @Test
+    void rejectsMalformedArguments() {
+        String usage = "Usage: list [limit] [after <id>] [in <course>] [above <percent>]";
+        assertEquals(List.of(usage), list("0"));
+        assertEquals(List.of(usage), list("after"));
+        assertEquals(List.of(usage), list("after abc"));
+        assertEquals(List.of(usage), list("above lots"));
+        assertEquals(List.of(usage), list("in Java 5"));
+        assertEquals(List.of("Unknown course."), list("in Cobol"));
+    }
+}
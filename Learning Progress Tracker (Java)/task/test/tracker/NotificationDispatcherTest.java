@@ -0,0 +1,88 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationDispatcherTest {
+
+    private static Notification message(int i) {
+        return new Notification("address" + i + "@mail.com", "Your Learning Progress", "Hello " + i, System.nanoTime());
+    }
+
+    @Test
+    void deliversEverythingInBatches() throws InterruptedException {
+        FakeSmtpTransport transport = new FakeSmtpTransport(0);
+        NotificationDispatcher dispatcher = new NotificationDispatcher(transport, 2, 100, 10, 3, 1);
+        for (int i = 0; i < 1000; i++) {
+            dispatcher.submit(message(i));
+        }
+        assertTrue(dispatcher.awaitIdle(10, TimeUnit.SECONDS));
+        dispatcher.close();
+
+        assertEquals(1000, transport.getDelivered().size());
+        assertTrue(transport.getBatchSizes().stream().allMatch(size -> size <= 10));
+        NotificationDispatcher.Stats stats = dispatcher.getStats();
+        assertEquals(1000, stats.submitted());
+        assertEquals(1000, stats.delivered());
+        assertEquals(0, stats.failed());
+    }
+
+    @Test
+    void retriesFailedBatchesWithBackoff() throws InterruptedException {
+        FakeSmtpTransport transport = new FakeSmtpTransport(2);
+        NotificationDispatcher dispatcher = new NotificationDispatcher(transport, 1, 10, 10, 3, 1);
+        dispatcher.submit(message(1));
+        assertTrue(dispatcher.awaitIdle(10, TimeUnit.SECONDS));
+
+        assertEquals(1, transport.getDelivered().size());
+        assertEquals(3, transport.getAttempts());
+        assertEquals(2, dispatcher.getStats().retries());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        FakeSmtpTransport transport = new FakeSmtpTransport(Integer.MAX_VALUE);
+        NotificationDispatcher dispatcher = new NotificationDispatcher(transport, 0, 1, 1, 2, 1);
+        dispatcher.submit(message(1));
+
+        assertEquals(0, transport.getDelivered().size());
+        assertEquals(1, dispatcher.getStats().failed());
+    }
+
+    @Test
+    void everySubmissionAcceptedDuringCloseIsDelivered() throws InterruptedException {
+        FakeSmtpTransport transport = new FakeSmtpTransport(0);
+        NotificationDispatcher dispatcher = new NotificationDispatcher(transport, 2, 100, 10, 3, 1);
+        LongAdder accepted = new LongAdder();
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread submitter = new Thread(() -> {
+                for (int i = 0; ; i++) {
+                    try {
+                        dispatcher.submit(message(i));
+                    } catch (IllegalStateException closed) {
+                        return;
+                    }
+                    accepted.increment();
+                }
+            });
+            submitters.add(submitter);
+            submitter.start();
+        }
+        Thread.sleep(50);
+        dispatcher.close();
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+
+        assertTrue(accepted.sum() > 0);
+        assertEquals(accepted.sum(), transport.getDelivered().size());
+        assertEquals(accepted.sum(), dispatcher.getStats().delivered());
+    }
+}
@@ -0,0 +1,95 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointsImporterTest {
+
+    @Test
+    void appliesLinesInFileOrderAcrossChunks() throws IOException {
+        StudentRegistry registry = new StudentRegistry();
+        for (int i = 0; i < 3; i++) {
+            registry.register("Name", "Surname", "student" + i + "@mail.com");
+        }
+        Path log = Files.createTempFile("points", ".log");
+        Files.writeString(log, String.join("\n",
+                "10000 1 2 3 4",
+                "10001 0 0 0 5\r",
+                "",
+                "10000 1 2 3",
+                "10002 1 x 0 0",
+                "  10002\t7 0 0 0  ",
+                "99999 1 1 1 1",
+                "abc 1 1 1 1",
+                "010000 1 1 1 1",
+                "10001 1 99999999999 0 0",
+                "10000 5 5 5 5"));
+        List<String> applied = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        PointsImporter.Report report = new PointsImporter(registry,
+                (student, points) -> applied.add(student.getID() + " " + Arrays.toString(points)), pool, 7)
+                .importFrom(log);
+        pool.shutdown();
+        Files.delete(log);
+
+        assertEquals(List.of(
+                "10000 [1, 2, 3, 4]",
+                "10001 [0, 0, 0, 5]",
+                "10002 [7, 0, 0, 0]",
+                "10000 [5, 5, 5, 5]"), applied);
+        assertEquals(4, report.applied());
+        assertEquals(List.of(
+                new ImportError(4, "Incorrect points format."),
+                new ImportError(5, "Incorrect points format."),
+                new ImportError(7, "No student is found for id=99999."),
+                new ImportError(8, "No student is found for id=abc."),
+                new ImportError(9, "No student is found for id=010000."),
+                new ImportError(10, "Incorrect points format.")), report.errors());
+    }
+
+    @Test
+    void chunkThatCannotBeReadFailsTheImportWithAnIOException() throws IOException {
+        StudentRegistry registry = new StudentRegistry();
+        Course java = registry.getPoints().getCourses().get(0);
+        registry.register("Name", "Surname", "student@mail.com").updatePoints(java, 1);
+        Path log = Files.createTempFile("points", ".log");
+        Files.writeString(log, "10000 1 1 1 1\n".repeat(20));
+        ForkJoinPool pool = new ForkJoinPool(1);
+        boolean[] truncated = {false};
+
+        // The first line applied cuts the log short once the chunks parsed ahead are done, so the next chunk
+        // cannot be mapped.
+        PointsImporter importer = new PointsImporter(registry, (student, points) -> {
+            if (!truncated[0]) {
+                truncated[0] = true;
+                pool.awaitQuiescence(10, TimeUnit.SECONDS);
+                try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                    channel.truncate(0);
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        }, pool, 16);
+        assertThrows(IOException.class, () -> importer.importFrom(log));
+        pool.shutdown();
+        Files.delete(log);
+
+        // Ranking was suspended for the import and is back: the board can be read again.
+        int[] ranked = {0};
+        registry.forEachRankedAfter(java, -1, slot -> ++ranked[0] > 0);
+        assertEquals(1, ranked[0]);
+    }
+}
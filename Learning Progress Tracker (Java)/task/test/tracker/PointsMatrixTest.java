@@ -0,0 +1,54 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointsMatrixTest {
+    private final List<Course> courses = List.of(
+            new Course(0, "Java", 600), new Course(1, "DSA", 400), new Course(2, "Databases", 480));
+
+    @Test
+    void keepsPointsPerSlotAndCourseAcrossPages() {
+        PointsMatrix matrix = new PointsMatrix(courses);
+        int far = PointsMatrix.PAGE_SIZE * 3 + 7;
+        matrix.ensureCapacity(far);
+
+        matrix.addPoints(0, 0, 5);
+        matrix.addPoints(0, 0, 7);
+        matrix.addPoints(far, 2, 9);
+
+        assertEquals(12, matrix.getPoints(0, 0));
+        assertEquals(0, matrix.getPoints(0, 1));
+        assertEquals(9, matrix.getPoints(far, 2));
+
+        matrix.ensureCapacity(far * 4);
+        assertEquals(12, matrix.getPoints(0, 0));
+        assertEquals(9, matrix.getPoints(far, 2));
+    }
+
+    @Test
+    void tracksEnrolledAndRemovedBitsIndependently() {
+        PointsMatrix matrix = new PointsMatrix(courses);
+        matrix.ensureCapacity(1);
+
+        matrix.setEnrolled(1, 1, true);
+        matrix.setRemoved(1, 2, true);
+
+        assertTrue(matrix.isEnrolled(1, 1));
+        assertFalse(matrix.isEnrolled(1, 2));
+        assertTrue(matrix.isRemoved(1, 2));
+        assertFalse(matrix.isRemoved(0, 2));
+
+        matrix.setEnrolled(1, 1, false);
+        assertFalse(matrix.isEnrolled(1, 1));
+    }
+
+    @Test
+    void rejectsCoursesOutOfOrdinalOrder() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PointsMatrix(List.of(new Course(1, "DSA", 400))));
+    }
+}
@@ -0,0 +1,69 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileTest {
+
+    private static List<Course> courses() {
+        return List.of(new Course(0, "Java", 600), new Course(1, "DSA", 400));
+    }
+
+    @Test
+    void restoresStudentsPointsAndCourseState() throws IOException {
+        List<Course> courses = courses();
+        StudentRegistry registry = new StudentRegistry(new StudentIdAllocator(), courses);
+        for (int i = 0; i < 300; i++) {
+            Student student = registry.register("Name", "Sur name", "address" + i + "@mail.com");
+            student.updatePoints(courses.get(0), i);
+            student.updatePoints(courses.get(1), i % 7 == 0 ? 400 : i % 5);
+        }
+        Student notified = registry.findById(StudentIdAllocator.idOf(7));
+        notified.removeCourseFromEnrolledList(courses.get(1));
+        courses.get(1).removeStudent(notified);
+
+        Path path = Files.createTempFile("snapshot", ".bin");
+        SnapshotFile.write(path, registry, new CommandJournal.Position(3, 42));
+
+        List<Course> restoredCourses = courses();
+        StudentRegistry restored = new StudentRegistry(new StudentIdAllocator(), restoredCourses);
+        CommandJournal.Position position = SnapshotFile.read(path, restored);
+        Files.delete(path);
+
+        assertEquals(new CommandJournal.Position(3, 42), position);
+        assertEquals(registry.size(), restored.size());
+        for (int c = 0; c < courses.size(); c++) {
+            Course course = courses.get(c);
+            Course restoredCourse = restoredCourses.get(c);
+            assertEquals(course.getTotalEnrolledStudents(), restoredCourse.getTotalEnrolledStudents());
+            assertEquals(course.getTotalNumberOfCompletedTasks(), restoredCourse.getTotalNumberOfCompletedTasks());
+            assertEquals(course.getAveragePerAssignment(), restoredCourse.getAveragePerAssignment(), 0.0);
+            assertArrayEquals(registry.getLeaderboard(course).top(1000), restored.getLeaderboard(restoredCourse).top(1000));
+        }
+        for (Student student : registry) {
+            Student copy = restored.findById(student.getNumericID());
+            assertEquals(student, copy);
+            for (int c = 0; c < courses.size(); c++) {
+                assertEquals(student.getPointsForCourse(courses.get(c)), copy.getPointsForCourse(restoredCourses.get(c)));
+            }
+        }
+        assertArrayEquals(toList(registry.getCompletions().peekAll()), toList(restored.getCompletions().peekAll()));
+        assertNotNull(restored.register("New", "Student", "new@mail.com"));
+        assertEquals(StudentIdAllocator.idOf(300), restored.findById("10300").getNumericID());
+    }
+
+    private static Object[] toList(long[] values) {
+        List<Long> list = new ArrayList<>();
+        for (long value : values) {
+            list.add(value);
+        }
+        return list.toArray();
+    }
+}
@@ -0,0 +1,246 @@
+package tracker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static tracker.ActivityWindow.HOUR_MILLIS;
+
+class SnapshotRecoveryTest {
+    private Path directory;
+    private Path snapshot;
+    private Path journal;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("recovery");
+        snapshot = directory.resolve("tracker.snapshot");
+        journal = directory.resolve("tracker.journal");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private Tracker open(OutputSink out) throws IOException {
+        Tracker tracker = new Tracker(() -> null, out);
+        tracker.openSnapshot(snapshot);
+        tracker.openJournal(journal, CommandJournal.FsyncPolicy.GROUP, 1);
+        return tracker;
+    }
+
+    private static void run(Tracker tracker, String... lines) {
+        for (String line : lines) {
+            tracker.accept(line);
+        }
+    }
+
+    private static OutputSink discard() {
+        return new BufferedOutputSink(OutputStream.nullOutputStream());
+    }
+
+    // Everything a restart has to bring back: students, points, enrollment, course totals, rankings and the
+    // completions still waiting for 'notify'.
+    private static String state(Tracker tracker) {
+        StringBuilder state = new StringBuilder();
+        List<Course> courses = tracker.getCatalog().courses();
+        for (Student student : tracker.getStudents()) {
+            state.append(student.getID()).append(' ').append(student.getFirstName()).append(' ')
+                    .append(student.getLastName()).append(' ').append(student.getEmail());
+            for (Course course : courses) {
+                state.append(' ').append(student.getPointsForCourse(course));
+            }
+            state.append('\n');
+        }
+        for (Course course : courses) {
+            state.append(course.getName()).append(": enrolled ").append(course.getTotalEnrolledStudents())
+                    .append(", tasks ").append(course.getTotalNumberOfCompletedTasks())
+                    .append(", points ").append(course.getTotalNumberOfCompletedTasksPoint())
+                    .append(", completed ").append(course.getTotalCompletedStudents())
+                    .append(", ranked ").append(Arrays.toString(tracker.getStudents().getLeaderboard(course)
+                            .top(Integer.MAX_VALUE))).append('\n');
+        }
+        return state.append(Arrays.toString(tracker.getStudents().getCompletions().peekAll())).toString();
+    }
+
+    @Test
+    void snapshotsTakenDuringWritesRestoreWithTheJournal() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink out = new BufferedOutputSink(bytes);
+        Tracker owner = open(out);
+        int writers = 4;
+        int studentsPerWriter = 150;
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            Tracker session = owner.session(discard(), NotificationDispatcher.synchronous(
+                    new ConsoleTransport(discard())));
+            Thread thread = new Thread(() -> {
+                try {
+                    SplittableRandom random = new SplittableRandom(writer);
+                    for (int i = 0; i < studentsPerWriter; i++) {
+                        session.accept("add students");
+                        session.accept("First Last writer" + writer + "." + i + "@mail.com");
+                        session.accept("back");
+                        session.accept("add points");
+                        for (int line = 0; line < 5; line++) {
+                            int id = StudentIdAllocator.FIRST_ID + random.nextInt(owner.getStudents().size());
+                            session.accept(id + " " + random.nextInt(30) + " 0 " + random.nextInt(5) + " 1");
+                        }
+                        session.accept("back");
+                        if (i % 50 == 49) {
+                            session.accept("notify");
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        int snapshots = 0;
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            owner.accept("snapshot");
+            snapshots++;
+            Thread.sleep(2);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(List.of(), failures);
+        assertTrue(snapshots > 1, "snapshots " + snapshots);
+        out.flush();
+        for (String line : bytes.toString(StandardCharsets.UTF_8).split(System.lineSeparator())) {
+            assertTrue(line.matches("Snapshot of \\d+ students has been saved\\."), line);
+        }
+        String live = state(owner);
+        owner.shutdown();
+
+        Tracker restored = open(discard());
+        assertEquals(writers * studentsPerWriter, restored.getStudents().size());
+        assertEquals(live, state(restored));
+        restored.shutdown();
+    }
+
+    @Test
+    void journalAheadOfTheSnapshotIsReplayedWhole() throws IOException {
+        Tracker tracker = open(discard());
+        run(tracker, "add students", "John Doe jdoe@mail.net", "Jane Spark jspark@yahoo.com", "back",
+                "add points", "10000 8 7 7 5", "back", "snapshot",
+                "add students", "Mary Jones mjones@mail.net", "back",
+                "add points", "10000 1 0 0 0", "10002 600 0 0 0", "back");
+        String live = state(tracker);
+        tracker.shutdown();
+        assertTrue(Files.readString(journal).startsWith("G\t1\n"));
+
+        Tracker restored = open(discard());
+        assertEquals(3, restored.getStudents().size());
+        assertEquals(live, state(restored));
+        restored.shutdown();
+    }
+
+    @Test
+    void crashBetweenSnapshotAndJournalResetReplaysNothingTwice() throws IOException {
+        OutputSink out = discard();
+        Tracker tracker = open(out);
+        run(tracker, "add students", "John Doe jdoe@mail.net", "back", "add points", "10000 8 7 7 5", "back");
+        // Once the answers are out the records are on disk: this is the journal as the snapshot left it had the
+        // process died right after moving the image into place.
+        out.flush();
+        Path beforeReset = directory.resolve("journal.copy");
+        Files.copy(journal, beforeReset);
+        run(tracker, "snapshot");
+        String live = state(tracker);
+        tracker.shutdown();
+        Files.move(beforeReset, journal, StandardCopyOption.REPLACE_EXISTING);
+
+        Tracker restored = open(discard());
+        assertEquals(live, state(restored));
+        assertEquals(8, restored.getStudents().findById(10000).getPointsForCourse(restored.getCatalog().get(0)));
+        restored.shutdown();
+    }
+
+    @Test
+    void journalOfTheSnapshotGenerationIsReplayedFromTheSnapshotOffset() throws IOException {
+        OutputSink out = discard();
+        Tracker tracker = open(out);
+        run(tracker, "add students", "John Doe jdoe@mail.net", "back", "add points", "10000 8 7 7 5", "back");
+        out.flush();
+        Path beforeReset = directory.resolve("journal.copy");
+        Files.copy(journal, beforeReset);
+        run(tracker, "snapshot");
+        tracker.shutdown();
+        Files.move(beforeReset, journal, StandardCopyOption.REPLACE_EXISTING);
+
+        // Restarted after that crash, the tracker keeps appending to the same generation past the snapshot.
+        Tracker restarted = open(discard());
+        run(restarted, "add students", "Jane Spark jspark@yahoo.com", "back",
+                "add points", "10000 2 0 0 0", "10001 0 400 0 0", "back");
+        String live = state(restarted);
+        restarted.shutdown();
+        assertTrue(Files.readString(journal).startsWith("G\t0\n"));
+
+        Tracker restored = open(discard());
+        assertEquals(live, state(restored));
+        assertEquals(10, restored.getStudents().findById(10000).getPointsForCourse(restored.getCatalog().get(0)));
+        restored.shutdown();
+    }
+
+    @Test
+    void completionsSurviveARestoreAfterMorePointsAreAdded() throws IOException {
+        Tracker tracker = open(discard());
+        // John completes Java by reaching its 600 points exactly and stays completed past them; Jane overshoots
+        // the total in one update and, as always, does not count as completed.
+        run(tracker, "add students", "John Doe jdoe@mail.net", "Jane Spark jspark@yahoo.com", "back",
+                "add points", "10000 590 0 0 0", "10000 10 0 0 0", "10000 5 0 0 0", "10001 700 0 0 0", "back",
+                "snapshot");
+        Course java = tracker.getCatalog().get(0);
+        assertEquals(1, java.getTotalCompletedStudents());
+        assertEquals(1, tracker.getStudents().getCompletions().peekAll().length);
+        String live = state(tracker);
+        tracker.shutdown();
+
+        Tracker restored = open(discard());
+        assertEquals(live, state(restored));
+        assertEquals(1, restored.getCatalog().get(0).getTotalCompletedStudents());
+        restored.shutdown();
+    }
+
+    @Test
+    void replayedPointsAreNotRecentActivity() throws IOException {
+        Tracker tracker = open(discard());
+        run(tracker, "add students", "John Doe jdoe@mail.net", "back", "add points", "10000 8 7 0 0", "back");
+        assertEquals(new ActivityWindow.Totals(1, 8), tracker.getCatalog().get(0).getActivity(HOUR_MILLIS));
+        tracker.shutdown();
+
+        Tracker restored = open(discard());
+        assertEquals(8, restored.getStudents().findById(10000).getPointsForCourse(restored.getCatalog().get(0)));
+        assertEquals(new ActivityWindow.Totals(0, 0), restored.getCatalog().get(0).getActivity(HOUR_MILLIS));
+        run(restored, "add points", "10000 2 0 0 0", "back");
+        assertEquals(new ActivityWindow.Totals(1, 2), restored.getCatalog().get(0).getActivity(HOUR_MILLIS));
+        restored.shutdown();
+    }
+}
@@ -0,0 +1,160 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentBitmapTest {
+
+    private static List<Integer> slots(StudentBitmap bitmap) {
+        List<Integer> slots = new ArrayList<>();
+        bitmap.forEach(slot -> slots.add(slot));
+        return slots;
+    }
+
+    private static List<Integer> slots(BitSet bits) {
+        List<Integer> slots = new ArrayList<>();
+        bits.stream().forEach(slots::add);
+        return slots;
+    }
+
+    // Chunk 0 is dense (a bitmap container), chunk 1 sparse (an array), chunk 3 crosses the threshold both ways.
+    private static StudentBitmap randomBitmap(SplittableRandom random, BitSet expected, double... density) {
+        StudentBitmap bitmap = new StudentBitmap();
+        for (int chunk = 0; chunk < density.length; chunk++) {
+            for (int low = 0; low < 1 << StudentBitmap.CHUNK_BITS; low++) {
+                if (random.nextDouble() < density[chunk]) {
+                    int slot = chunk << StudentBitmap.CHUNK_BITS | low;
+                    assertTrue(bitmap.add(slot));
+                    expected.set(slot);
+                }
+            }
+        }
+        return bitmap;
+    }
+
+    @Test
+    void addsAndRemovesAcrossContainerKinds() {
+        StudentBitmap bitmap = new StudentBitmap();
+        BitSet expected = new BitSet();
+        for (int slot = 0; slot < StudentBitmap.ARRAY_MAX + 10; slot++) {
+            assertTrue(bitmap.add(slot * 3));
+            expected.set(slot * 3);
+        }
+        assertFalse(bitmap.add(3));
+        assertTrue(bitmap.contains(3 * StudentBitmap.ARRAY_MAX));
+        assertFalse(bitmap.contains(4));
+        assertEquals(StudentBitmap.ARRAY_MAX + 10, bitmap.cardinality());
+
+        for (int slot = 0; slot < 20; slot++) {
+            assertTrue(bitmap.remove(slot * 3));
+            expected.clear(slot * 3);
+        }
+        assertFalse(bitmap.remove(0));
+        assertFalse(bitmap.remove(1 << 30));
+
+        assertEquals(StudentBitmap.ARRAY_MAX - 10, bitmap.cardinality());
+        assertEquals(slots(expected), slots(bitmap));
+    }
+
+    @Test
+    void setOperationsMatchBitSets() {
+        SplittableRandom random = new SplittableRandom(7);
+        BitSet a = new BitSet();
+        BitSet b = new BitSet();
+        StudentBitmap left = randomBitmap(random, a, 0.9, 0.01, 0.3, 0.06);
+        StudentBitmap right = randomBitmap(random, b, 0.5, 0.02, 0, 0.07, 0.001);
+
+        BitSet and = (BitSet) a.clone();
+        and.and(b);
+        BitSet or = (BitSet) a.clone();
+        or.or(b);
+        BitSet andNot = (BitSet) a.clone();
+        andNot.andNot(b);
+
+        assertEquals(slots(and), slots(left.and(right)));
+        assertEquals(and.cardinality(), left.and(right).cardinality());
+        assertEquals(slots(or), slots(left.or(right)));
+        assertEquals(or.cardinality(), right.or(left).cardinality());
+        assertEquals(slots(andNot), slots(left.andNot(right)));
+        assertEquals(andNot.cardinality(), left.andNot(right).cardinality());
+        assertEquals(a.cardinality(), left.cardinality());
+    }
+
+    @Test
+    void snapshotsDoNotFollowLaterChanges() {
+        StudentBitmap bitmap = new StudentBitmap();
+        bitmap.add(5);
+        StudentBitmap snapshot = bitmap.snapshot();
+        bitmap.add(6);
+        bitmap.remove(5);
+
+        assertEquals(List.of(5), slots(snapshot));
+        assertEquals(List.of(6), slots(bitmap));
+    }
+
+    @Test
+    void concurrentWritersLoseNoUpdate() throws InterruptedException {
+        StudentBitmap bitmap = new StudentBitmap();
+        int threads = 8;
+        int slots = 3 << StudentBitmap.CHUNK_BITS;
+        // Every chunk is promoted from an array to a bitmap while the threads interleave their adds and removes.
+        List<Thread> writers = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < threads; t++) {
+            int writer = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int slot = writer; slot < slots; slot += threads) {
+                        assertTrue(bitmap.add(slot));
+                        if (slot >= 2 * threads && (slot / threads) % 3 == 0) {
+                            assertTrue(bitmap.remove(slot - 2 * threads));
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            writers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : writers) {
+            thread.join();
+        }
+        assertEquals(List.of(), failures);
+
+        BitSet expected = new BitSet();
+        expected.set(0, slots);
+        for (int slot = 2 * threads; slot < slots; slot++) {
+            if ((slot / threads) % 3 == 0) {
+                expected.clear(slot - 2 * threads);
+            }
+        }
+        assertEquals(expected.cardinality(), bitmap.cardinality());
+        assertEquals(slots(expected), slots(bitmap));
+        assertEquals(slots(expected), slots(bitmap.snapshot()));
+        assertEquals(expected.cardinality(), bitmap.snapshot().cardinality());
+    }
+
+    @Test
+    void sparseChunksStayArrays() {
+        StudentBitmap sparse = new StudentBitmap();
+        StudentBitmap dense = new StudentBitmap();
+        for (int slot = 0; slot < 1_000_000; slot++) {
+            if (slot % 100 == 0) {
+                sparse.add(slot);
+            }
+            dense.add(slot);
+        }
+
+        // Two bytes a slot, at most doubled by array growth, against 8 KB for each of the 16 dense chunks.
+        assertTrue(sparse.sizeInBytes() < 10_000 * 4 + 16 * 64, "sparse: " + sparse.sizeInBytes());
+        assertTrue(dense.sizeInBytes() < 16 * (8 * 1024 + 64), "dense: " + dense.sizeInBytes());
+    }
+}
@@ -0,0 +1,75 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentIdAllocatorTest {
+
+    @Test
+    void allocatesUniqueDenseIdsConcurrently() throws InterruptedException {
+        StudentIdAllocator allocator = new StudentIdAllocator();
+        int threads = 8;
+        int perThread = 50_000;
+        BitSet seen = new BitSet();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                int[] ids = new int[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = allocator.allocate();
+                }
+                synchronized (seen) {
+                    for (int id : ids) {
+                        assertFalse(seen.get(StudentIdAllocator.slotOf(id)));
+                        seen.set(StudentIdAllocator.slotOf(id));
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * perThread, seen.cardinality());
+        assertEquals(threads * perThread, seen.nextClearBit(0));
+        assertEquals(threads * perThread, allocator.allocatedCount());
+    }
+
+    @Test
+    void parsesOnlyCanonicalIds() {
+        assertEquals(10000, StudentIdAllocator.parse("10000"));
+        assertEquals(123456, StudentIdAllocator.parse(StudentIdAllocator.format(123456)));
+        assertEquals(StudentIdAllocator.NO_ID, StudentIdAllocator.parse(""));
+        assertEquals(StudentIdAllocator.NO_ID, StudentIdAllocator.parse("010000"));
+        assertEquals(StudentIdAllocator.NO_ID, StudentIdAllocator.parse("-10000"));
+        assertEquals(StudentIdAllocator.NO_ID, StudentIdAllocator.parse("9999"));
+        assertEquals(StudentIdAllocator.NO_ID, StudentIdAllocator.parse("abcde"));
+        assertEquals(StudentIdAllocator.NO_ID, StudentIdAllocator.parse("99999999999"));
+    }
+
+    @Test
+    void comparesIdsInFormattedStringOrder() {
+        Random random = new Random(7);
+        int[] samples = {10000, 10001, 99999, 100000, 100001, 999999, 1000000, 123456789, Integer.MAX_VALUE};
+        for (int a : samples) {
+            for (int b : samples) {
+                assertEquals(Integer.signum(Integer.toString(a).compareTo(Integer.toString(b))),
+                        Integer.signum(StudentIdAllocator.compareFormatted(a, b)));
+            }
+        }
+        for (int i = 0; i < 100_000; i++) {
+            int a = StudentIdAllocator.FIRST_ID + random.nextInt(Integer.MAX_VALUE - StudentIdAllocator.FIRST_ID);
+            int b = StudentIdAllocator.FIRST_ID + random.nextInt(1 << (1 + random.nextInt(30)));
+            assertEquals(Integer.signum(Integer.toString(a).compareTo(Integer.toString(b))),
+                    Integer.signum(StudentIdAllocator.compareFormatted(a, b)));
+        }
+    }
+}
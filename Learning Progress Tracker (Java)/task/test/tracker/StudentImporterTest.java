@@ -0,0 +1,51 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentImporterTest {
+
+    @Test
+    void importsValidRowsInFileOrderAndReportsTheRest() throws IOException {
+        StudentRegistry registry = new StudentRegistry();
+        registry.register("Existing", "Student", "taken@mail.com");
+        Path csv = Files.createTempFile("students", ".csv");
+        Files.writeString(csv, String.join("\n",
+                "first name,last name,email",
+                "John,Smith,jsmith@hotmail.com",
+                "Mary,\"Anne   Jean-Claude\",mary@mail.com",
+                "",
+                "J.,Doe,j@mail.com",
+                "Jane,Doe,TAKEN@mail.com",
+                "Jane,Doe,jane@mail",
+                "Mary Ann,Doe,ma@mail.com",
+                "only,two",
+                "Anna,O'Neil,JSMITH@hotmail.com",
+                "Anna,O'Neil,anna@mail.com"));
+        List<Student> added = new ArrayList<>();
+
+        StudentImporter.Report report = new StudentImporter(registry, added::add, 3).importFrom(csv);
+        Files.delete(csv);
+
+        assertEquals(3, report.imported());
+        assertEquals(List.of(
+                new ImportError(5, "Incorrect first name."),
+                new ImportError(6, "This email is already taken"),
+                new ImportError(7, "Incorrect email."),
+                new ImportError(8, "Incorrect first name."),
+                new ImportError(9, "Incorrect credentials."),
+                new ImportError(10, "This email is already taken")), report.errors());
+        assertEquals(List.of("jsmith@hotmail.com", "mary@mail.com", "anna@mail.com"),
+                added.stream().map(Student::getEmail).toList());
+        assertEquals("Anne Jean-Claude", added.get(1).getLastName());
+        assertEquals(List.of("10001", "10002", "10003"), added.stream().map(Student::getID).toList());
+        assertEquals(4, registry.size());
+    }
+}
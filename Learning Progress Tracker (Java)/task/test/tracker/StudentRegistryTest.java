@@ -0,0 +1,49 @@
+package tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentRegistryTest {
+
+    @Test
+    void findsStudentsByIdAndEmail() {
+        StudentRegistry registry = new StudentRegistry();
+        Student john = registry.register("John", "Doe", "johnd@email.net");
+        assertNotNull(john);
+
+        assertSame(john, registry.findById(john.getID()));
+        assertSame(john, registry.findById(john.getNumericID()));
+        assertNull(registry.findById("nosuchid"));
+        assertTrue(registry.containsEmail("johnd@email.net"));
+        assertTrue(registry.containsEmail("JohnD@Email.net"));
+        assertFalse(registry.containsEmail("jane@email.net"));
+    }
+
+    @Test
+    void rejectsDuplicateEmail() {
+        StudentRegistry registry = new StudentRegistry();
+        assertNotNull(registry.register("John", "Doe", "johnd@email.net"));
+        assertNull(registry.register("Johnny", "Doe", "JOHND@email.net"));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void keepsInsertionOrderWithDenseIds() {
+        StudentRegistry registry = new StudentRegistry();
+        List<Student> added = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            added.add(registry.register("Name", "Surname", "address" + i + "@mail.com"));
+        }
+
+        List<Student> listed = new ArrayList<>();
+        registry.forEach(listed::add);
+        assertEquals(added, listed);
+        for (int i = 0; i < added.size(); i++) {
+            assertEquals(StudentIdAllocator.FIRST_ID + i, added.get(i).getNumericID());
+        }
+    }
+}
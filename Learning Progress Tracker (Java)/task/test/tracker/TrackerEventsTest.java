@@ -0,0 +1,106 @@
+package tracker;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackerEventsTest {
+
+    @AfterEach
+    void disableEvents() {
+        TrackerEvents.setEnabled(false);
+    }
+
+    private static List<RecordedEvent> record(boolean enabled, String... lines) throws IOException {
+        TrackerEvents.setEnabled(enabled);
+        Path file = Files.createTempFile("tracker", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("tracker.Command", "tracker.PointsUpdate", "tracker.Statistics",
+                    "tracker.CourseDetails", "tracker.Notify")) {
+                recording.enable(name);
+            }
+            recording.start();
+            Tracker tracker = new Tracker(() -> null, new BufferedOutputSink(OutputStream.nullOutputStream()));
+            for (String line : lines) {
+                tracker.accept(line);
+            }
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("tracker."))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String type) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(type)).collect(Collectors.toList());
+    }
+
+    @Test
+    void recordsCommandsCourseDetailsStatisticsAndNotify() throws IOException {
+        List<RecordedEvent> events = record(true,
+                "add students", "John Smith jsmith@hotmail.com", "back",
+                "add points", "10000 600 0 0 0", "back",
+                "statistics", "Java", "back",
+                "notify", "nonsense");
+
+        List<RecordedEvent> commands = ofType(events, "tracker.Command");
+        assertEquals(11, commands.size());
+        assertEquals("add students line", commands.get(1).getString("command"));
+        assertEquals(1, commands.get(1).getInt("students"));
+        assertEquals("course details", commands.get(7).getString("command"));
+        assertFalse(commands.get(10).getBoolean("accepted"));
+        assertEquals("(unknown)", commands.get(10).getString("command"));
+
+        RecordedEvent details = ofType(events, "tracker.CourseDetails").get(0);
+        assertEquals("Java", details.getString("course"));
+        assertEquals(1, details.getLong("rows"));
+
+        RecordedEvent statistics = ofType(events, "tracker.Statistics").get(0);
+        assertTrue(statistics.getBoolean("recomputed"));
+        assertEquals(4, statistics.getInt("courses"));
+
+        RecordedEvent notify = ofType(events, "tracker.Notify").get(0);
+        assertEquals(1, notify.getInt("completions"));
+        assertEquals(1, notify.getInt("studentsNotified"));
+    }
+
+    @Test
+    void samplesPointUpdates() throws IOException {
+        String[] lines = new String[2 + 64 * 50];
+        lines[0] = "add students";
+        lines[1] = "John Smith jsmith@hotmail.com";
+        lines[2] = "back";
+        lines[3] = "add points";
+        for (int i = 4; i < lines.length; i++) {
+            lines[i] = "10000 1 0 2 0";
+        }
+
+        List<RecordedEvent> updates = ofType(record(true, lines), "tracker.PointsUpdate");
+
+        assertTrue(updates.size() > 10 && updates.size() < 150, "sampled " + updates.size());
+        RecordedEvent update = updates.get(0);
+        assertEquals(10000, update.getInt("studentId"));
+        assertEquals(2, update.getInt("courses"));
+        assertEquals(3, update.getLong("points"));
+        assertEquals(TrackerEvents.POINTS_SAMPLE_INTERVAL, update.getInt("sampleInterval"));
+    }
+
+    @Test
+    void nothingIsRecordedUntilEnabled() throws IOException {
+        assertTrue(record(false, "list", "statistics", "Java", "back", "notify").isEmpty());
+    }
+}
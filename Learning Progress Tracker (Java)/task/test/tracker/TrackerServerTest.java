@@ -0,0 +1,306 @@
+package tracker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackerServerTest {
+    private ByteArrayOutputStream ownerBytes;
+    private Tracker owner;
+    private TrackerServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        ownerBytes = new ByteArrayOutputStream();
+        OutputSink ownerOut = new BufferedOutputSink(ownerBytes);
+        owner = new Tracker(() -> null, ownerOut);
+        server = new TrackerServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2,
+                out -> owner.session(out, NotificationDispatcher.synchronous(new ConsoleTransport(out)))).start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.close();
+        owner.shutdown();
+    }
+
+    @Test
+    void eachConnectionHasItsOwnSubMode() throws IOException {
+        try (TrackerClient adding = TrackerClient.connect(server.getAddress());
+             TrackerClient finding = TrackerClient.connect(server.getAddress())) {
+            adding.send("add students");
+            assertEquals("Enter student credentials or 'back' to return:", adding.readLine());
+            finding.send("find");
+            assertEquals("Enter an id or 'back' to return:", finding.readLine());
+
+            adding.send("John Smith jsmith@hotmail.com");
+            assertEquals("The student has been added.", adding.readLine());
+            finding.send("10000");
+            assertEquals("10000 points: Java=0; DSA=0; Databases=0; Spring=0", finding.readLine());
+            finding.send("John Smith jsmith@hotmail.com");
+            assertEquals("No student is found for id=John Smith jsmith@hotmail.com.", finding.readLine());
+
+            adding.send("back");
+            assertEquals("Total 1 students have been added.", adding.readLine());
+        }
+    }
+
+    @Test
+    void pipelinedRequestsAreAnsweredInOrder() throws IOException {
+        try (TrackerClient client = TrackerClient.connect(server.getAddress())) {
+            client.send("add students", "Jane Doe jane@doe.org", "back",
+                    "add points", "10000 600 400 0 0", "10001 1 1 1 1", "back",
+                    "list", "frobnicate", "exit", "list");
+
+            assertEquals(List.of(
+                    "Enter student credentials or 'back' to return:", "The student has been added.",
+                    "Total 1 students have been added.",
+                    "Enter an id and points or 'back' to return:", "Points updated.",
+                    "No student is found for id=10001.",
+                    "Students:", "10000", "Error: unknown command!", "Bye!"), readAll(client));
+        }
+        assertEquals(0, awaitOpenConnections(0));
+    }
+
+    @Test
+    void pointsTooLargeForAnIntAreRejectedWithoutEndingTheSession() throws IOException {
+        try (TrackerClient client = TrackerClient.connect(server.getAddress())) {
+            client.send("add students", "Jane Doe jane@doe.org", "back",
+                    "add points", "10000 2147483648 0 0 0", "10000 99999999999999999999 0 0 0",
+                    "10000 2147483647 0 0 0", "back", "exit");
+
+            assertEquals(List.of(
+                    "Enter student credentials or 'back' to return:", "The student has been added.",
+                    "Total 1 students have been added.",
+                    "Enter an id and points or 'back' to return:", "Incorrect points format.",
+                    "Incorrect points format.", "Points updated.", "Bye!"), readAll(client));
+        }
+    }
+
+    @Test
+    void exitEndsOnlyTheSession() throws IOException {
+        try (TrackerClient first = TrackerClient.connect(server.getAddress())) {
+            first.send("add students", "Jane Doe jane@doe.org", "back", "exit");
+            assertEquals("Bye!", readAll(first).get(3));
+        }
+        try (TrackerClient second = TrackerClient.connect(server.getAddress())) {
+            second.send("list");
+            second.finishSending();
+            assertEquals(List.of("Students:", "10000"), readAll(second));
+        }
+    }
+
+    @Test
+    void sessionsImportOnlyFromTheImportDirectory() throws IOException {
+        Path root = Files.createTempDirectory("imports");
+        Path directory = Files.createDirectory(root.resolve("allowed"));
+        Files.writeString(directory.resolve("students.csv"), "Jane,Doe,jane@doe.org\nbad row\n");
+        Files.writeString(root.resolve("outside.csv"), "John,Doe,john@doe.org\n");
+        Files.createSymbolicLink(directory.resolve("link.csv"), root.resolve("outside.csv"));
+        try {
+            try (TrackerClient client = TrackerClient.connect(server.getAddress())) {
+                client.send("import students " + directory.resolve("students.csv"));
+                assertEquals("Imports are not configured.", client.readLine());
+            }
+            owner.setImportDirectory(directory);
+            try (TrackerClient client = TrackerClient.connect(server.getAddress())) {
+                client.send("import students ../outside.csv", "import students link.csv",
+                        "import students " + root.resolve("outside.csv"), "import students students.csv");
+                client.finishSending();
+                List<String> answers = readAll(client);
+                String limited = "Imports are limited to " + directory.toRealPath() + ".";
+                assertEquals(List.of(limited, limited, limited), answers.subList(0, 3));
+                assertEquals("Total 1 students have been imported, 1 rows rejected.", answers.get(3));
+            }
+            assertTrue(Files.exists(directory.resolve("students.csv.errors")));
+            assertEquals(1, owner.getStudents().size());
+        } finally {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void slowReaderIsHeldAtItsOutputLimitWithoutStallingOthers() throws IOException {
+        int students = 10_000;
+        int lists = 40;
+        owner.accept("add students");
+        for (int i = 0; i < students; i++) {
+            owner.accept("Given Family given" + i + "@example.com");
+        }
+        owner.accept("back");
+        // One event loop: the connection that keeps it answered shares it with the one that is not reading.
+        try (TrackerServer limited = new TrackerServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                1, 2, 4096, out -> owner.session(out, NotificationDispatcher.synchronous(new ConsoleTransport(out))))
+                .start();
+             TrackerClient slow = TrackerClient.connect(limited.getAddress());
+             TrackerClient other = TrackerClient.connect(limited.getAddress())) {
+            String[] script = new String[lists + 1];
+            Arrays.fill(script, "list");
+            script[lists] = "exit";
+            slow.send(script);
+
+            other.send("find", "10000");
+            assertEquals("Enter an id or 'back' to return:", other.readLine());
+            assertEquals("10000 points: Java=0; DSA=0; Databases=0; Spring=0", other.readLine());
+
+            List<String> answers = readAll(slow);
+            assertEquals(lists * (students + 1) + 1, answers.size());
+            assertEquals("Students:", answers.get(students + 1));
+            assertEquals("19999", answers.get(answers.size() - 2));
+            assertEquals("Bye!", answers.get(answers.size() - 1));
+        }
+    }
+
+    @Test
+    void slowReaderOfCourseDetailsDoesNotHoldUpUpdates() throws Exception {
+        int students = 20_000;
+        // Far more than the socket buffers take, so the session ends up waiting for its peer mid-listing.
+        int listings = 200;
+        owner.accept("add students");
+        for (int i = 0; i < students; i++) {
+            owner.accept("Given Family given" + i + "@example.com");
+        }
+        owner.accept("back");
+        owner.accept("add points");
+        for (int i = 0; i < students; i++) {
+            owner.accept((10000 + i) + " 1 0 0 0");
+        }
+        owner.accept("back");
+        try (TrackerServer limited = new TrackerServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                1, 2, 4096, out -> owner.session(out, NotificationDispatcher.synchronous(new ConsoleTransport(out))))
+                .start()) {
+            TrackerClient slow = TrackerClient.connect(limited.getAddress());
+            String[] script = new String[listings + 1];
+            script[0] = "statistics";
+            Arrays.fill(script, 1, listings + 1, "Java");
+            slow.send(script);
+            while (limited.getLinesHandled() < 2) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(1000);
+
+            Thread writer = new Thread(() -> {
+                owner.accept("add points");
+                owner.accept("10000 5 0 0 0");
+                owner.accept("back");
+            });
+            writer.start();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            assertFalse(writer.isAlive(), "an update to Java waited for the slow reader");
+
+            // Hanging up releases the session waiting to write.
+            slow.close();
+            for (int attempt = 0; attempt < 500 && limited.getOpenConnections() > 0; attempt++) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, limited.getOpenConnections());
+        }
+    }
+
+    // Excluded from 'gradle test'; run with 'gradle loadTest'.
+    @Test
+    @Tag("load")
+    void thousandConcurrentConnections() throws IOException {
+        int connections = 1000;
+        int pointLines = 50;
+        owner.accept("add students");
+        for (int i = 0; i < connections; i++) {
+            owner.accept("Given Family given" + i + "@example.com");
+        }
+        owner.accept("back");
+
+        List<TrackerClient> clients = new ArrayList<>(connections);
+        long started = System.nanoTime();
+        try {
+            for (int i = 0; i < connections; i++) {
+                clients.add(TrackerClient.connect(server.getAddress()));
+            }
+            for (int i = 0; i < connections; i++) {
+                List<String> script = new ArrayList<>();
+                script.add("add students");
+                script.add("Remote Student remote" + i + "@example.com");
+                script.add("back");
+                script.add("add points");
+                for (int line = 0; line < pointLines; line++) {
+                    script.add((10000 + i) + " 1 2 3 4");
+                }
+                script.add("back");
+                script.add("exit");
+                clients.get(i).send(script.toArray(new String[0]));
+            }
+            for (TrackerClient client : clients) {
+                List<String> answers = readAll(client);
+                assertEquals(pointLines + 5, answers.size());
+                assertEquals("The student has been added.", answers.get(1));
+                assertEquals("Points updated.", answers.get(4 + pointLines - 1));
+                assertEquals("Bye!", answers.get(answers.size() - 1));
+            }
+        } finally {
+            for (TrackerClient client : clients) {
+                client.close();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        long lines = (long) connections * (pointLines + 6);
+        assertTrue(elapsedNanos < TimeUnit.SECONDS.toNanos(60), "took " + elapsedNanos / 1_000_000 + " ms");
+
+        assertEquals(connections, server.getAcceptedConnections());
+        assertEquals(lines, server.getLinesHandled());
+        owner.accept("find");
+        owner.accept("10000");
+        owner.accept("10999");
+        owner.accept("11999");
+        owner.accept("back");
+        owner.accept("exit");
+        assertEquals(String.join(System.lineSeparator(),
+                "Enter student credentials or 'back' to return:",
+                "Total " + connections + " students have been added.",
+                "Enter an id or 'back' to return:",
+                "10000 points: Java=50; DSA=100; Databases=150; Spring=200",
+                "10999 points: Java=50; DSA=100; Databases=150; Spring=200",
+                "11999 points: Java=0; DSA=0; Databases=0; Spring=0",
+                "Bye!", ""), ownerBytes.toString(StandardCharsets.UTF_8)
+                .replace("The student has been added." + System.lineSeparator(), ""));
+    }
+
+    private static List<String> readAll(TrackerClient client) throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = client.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private int awaitOpenConnections(int expected) {
+        for (int attempt = 0; attempt < 100 && server.getOpenConnections() != expected; attempt++) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return server.getOpenConnections();
+    }
+}